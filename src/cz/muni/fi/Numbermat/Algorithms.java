@@ -19,8 +19,6 @@
 package cz.muni.fi.Numbermat;
 
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Random;
 import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
@@ -52,18 +50,180 @@ public final class Algorithms {
     public static boolean isPrime(final int n) {
         if (n < 2)
             return false;
-        if (n == 2)
-            return true;
-        if (n % 2 == 0)
+        if (n <= Math.max(PrimeSieve.getLimit(), PrimeSieve.INITIAL_LIMIT))
+            return PrimeSieve.isPrime(n);
+        if (hasSmallPrimeFactor(n))
+            return false;
+        
+        // Bases 2, 7, 61 are sufficient for n < 4759123141
+        return millerRabinInt(n, 2) && millerRabinInt(n, 7) && millerRabinInt(n, 61);
+    }
+    
+    /**
+     * Deterministic Miller-Rabin primality test.
+     * See Handbook of Applied Cryptography, sec. 4.2.3, page 139 for details.
+     * @param n Integer
+     * @return Is 'n' prime?
+     */
+    public static boolean isPrime(final long n) {
+        if (n <= Integer.MAX_VALUE)
+            return isPrime((int)Math.max(n, 0));
+        if (hasSmallPrimeFactor(n))
             return false;
         
-        for (int i = 3; i <= Math.sqrt(n) + 1; i += 2) {
-            if (n % i == 0)
+        final Montgomery mont = new Montgomery(n);
+        for (int i = 0; i < MILLER_RABIN_BASES.length; ++i) {
+            final long base = MILLER_RABIN_BASES[i] % n;
+            if ((base != 0) && (!millerRabinLong(mont, base)))
                 return false;
         }
         return true;
     }
     
+    /**
+     * Bases for which Miller-Rabin test gives correct answer for all n < 2^64
+     * (found by J. Sinclair).
+     */
+    private static final long[] MILLER_RABIN_BASES = new long[] {2, 325, 9375,
+        28178, 450775, 9780504, 1795265022};
+    
+    private static final int[] SMALL_PRIMES = new int[] {2, 3, 5, 7, 11, 13,
+        17, 19, 23, 29, 31, 37, 41, 43, 47};
+    
+    private static boolean hasSmallPrimeFactor(final long n) {
+        for (int i = 0; i < SMALL_PRIMES.length; ++i) {
+            if (n % SMALL_PRIMES[i] == 0)
+                return n != SMALL_PRIMES[i];
+        }
+        return false;
+    }
+    
+    /**
+     * Miller-Rabin strong probable prime test for odd n < 2^31.
+     * Products of two residues fit into long, no special reduction is needed.
+     */
+    private static boolean millerRabinInt(final int n, final int base) {
+        final long nMinusOne = n - 1;
+        final int s = Long.numberOfTrailingZeros(nMinusOne);
+        final long d = nMinusOne >> s;
+        
+        long x = 1;
+        long b = base % n;
+        for (long e = d; e > 0; e >>= 1) {
+            if ((e & 1) == 1)
+                x = x * b % n;
+            b = b * b % n;
+        }
+        if ((x == 1) || (x == nMinusOne))
+            return true;
+        for (int r = 1; r < s; ++r) {
+            x = x * x % n;
+            if (x == nMinusOne)
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Miller-Rabin strong probable prime test for odd n in Montgomery arithmetic.
+     */
+    private static boolean millerRabinLong(final Montgomery mont, final long base) {
+        final long nMinusOne = mont.getModulus() - 1;
+        final int s = Long.numberOfTrailingZeros(nMinusOne);
+        final long one = mont.one();
+        final long minusOne = mont.toMontgomery(nMinusOne);
+        
+        long x = mont.pow(mont.toMontgomery(base), nMinusOne >> s);
+        if ((x == one) || (x == minusOne))
+            return true;
+        for (int r = 1; r < s; ++r) {
+            x = mont.multiply(x, x);
+            if (x == minusOne)
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Modular multiplication without overflow for moduli up to 2^63 - 1.
+     * @param a Non-negative integer
+     * @param b Non-negative integer
+     * @param m Positive integer
+     * @return (a*b) mod m
+     */
+    public static long mulMod(long a, long b, final long m) {
+        notNegativeCheck(a);
+        notNegativeCheck(b);
+        positiveCheck(m);
+        a %= m;
+        b %= m;
+        if (Long.numberOfLeadingZeros(a) + Long.numberOfLeadingZeros(b) >= 65) // product fits into 63 bits
+            return a * b % m;
+        
+        // a, b < m, hence the high word of the 128-bit product is below m
+        return remainder128(Montgomery.multiplyHighUnsigned(a, b), a * b, m);
+    }
+    
+    /**
+     * Mask of the lower 32 bits.
+     */
+    private static final long LOW_32 = 0xFFFFFFFFL;
+    
+    /**
+     * Remainder of an unsigned 128-bit number, long division by 32-bit digits
+     * of the normalized divisor (Hacker's Delight, sec. 9.4, divlu).
+     * @param hi Upper 64 bits, hi < m
+     * @param lo Lower 64 bits (unsigned)
+     * @param m Positive long integer
+     * @return (hi*2^64 + lo) mod m
+     */
+    private static long remainder128(final long hi, final long lo, final long m) {
+        final int shift = Long.numberOfLeadingZeros(m); // >= 1
+        final long v = m << shift;
+        final long vn1 = v >>> 32;
+        final long vn0 = v & LOW_32;
+        final long un32 = (hi << shift) | (lo >>> (64 - shift));
+        final long un10 = lo << shift;
+        final long un1 = un10 >>> 32;
+        final long un0 = un10 & LOW_32;
+        
+        // First quotient digit, the estimate is at most 2 too large
+        long q1 = divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while ((q1 > LOW_32) || lessThanUnsigned((rhat << 32) | un1, q1 * vn0)) {
+            --q1;
+            rhat += vn1;
+            if (rhat > LOW_32)
+                break;
+        }
+        final long un21 = (un32 << 32) + un1 - q1 * v;
+        
+        long q0 = divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while ((q0 > LOW_32) || lessThanUnsigned((rhat << 32) | un0, q0 * vn0)) {
+            --q0;
+            rhat += vn1;
+            if (rhat > LOW_32)
+                break;
+        }
+        return ((un21 << 32) + un0 - q0 * v) >>> shift;
+    }
+    
+    /**
+     * @param dividend Unsigned 64-bit integer
+     * @param divisor Positive long integer
+     * @return Unsigned quotient dividend / divisor
+     */
+    private static long divideUnsigned(final long dividend, final long divisor) {
+        final long quotient = ((dividend >>> 1) / divisor) << 1;
+        final long remainder = dividend - quotient * divisor;
+        return (remainder >= divisor) ? quotient + 1 : quotient;
+    }
+    
+    private static boolean lessThanUnsigned(final long a, final long b) {
+        return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+    }
+    
     /**
      * @param a Integer
      * @param b Integer
@@ -111,17 +271,30 @@ public final class Algorithms {
      * @return Integer in range [min, max]
      */
     public static int randInt(final int min, final int max, final boolean zero) {
+        return randInt(min, max, zero, RandomContext.current());
+    }
+    
+    /**
+     * Generates a pseudo-random integer between 'min' and 'max', inclusive.
+     * The difference between min and max can be at most Integer.MAX_VALUE - 1.
+     * @param min Minimum value
+     * @param max Maximum value >= min
+     * @param zero Is zero allowed?
+     * @param random Source of randomness
+     * @return Integer in range [min, max]
+     */
+    public static int randInt(final int min, final int max, final boolean zero,
+            final RandomContext random) {
         notLessThanCheck(max, min);
         overflowCheck(min, max);
         if ((min == 0) && (max == 0) && !zero)
             throw new IllegalArgumentException("Bounds allow to generate only 0,"
                     + "but it was not allowed.");
          
-        final Random rand = new Random();
-        int n = rand.nextInt((max - min) + 1) + min;
+        int n = random.nextInt((max - min) + 1) + min;
         if (!zero) {
             while (n == 0)
-                n = rand.nextInt((max - min) + 1) + min;
+                n = random.nextInt((max - min) + 1) + min;
         }
         return n;
     }
@@ -134,57 +307,112 @@ public final class Algorithms {
      * @return Integer in range [min, max]
      */
     public static int randInt(final int min, final int max) {
-        return randInt(min, max, true);
+        return randInt(min, max, true, RandomContext.current());
     }
     
     /**
-     * Generates a pseudo-random prime between 'min' and 'max', inclusive.
+     * Generates a pseudo-random integer between 'min' and 'max', inclusive.
+     * The difference between min and max can be at most Integer.MAX_VALUE - 1.
+     * @param min Minimum value
+     * @param max Maximum value >= min
+     * @param random Source of randomness
+     * @return Integer in range [min, max]
+     */
+    public static int randInt(final int min, final int max, final RandomContext random) {
+        return randInt(min, max, true, random);
+    }
+    
+    /**
+     * Generates a uniformly distributed pseudo-random prime between 'min' and 'max',
+     * inclusive. Up to PrimeSieve.MAX_LIMIT the k-th prime of the range is chosen
+     * by prefix prime counts, narrow ranges above it are listed, wide ones
+     * are sampled by rejection (they always contain many primes).
      * The difference between min and max can be at most Integer.MAX_VALUE - 1.
      * @param min Minimum value. Non-negative integer.
      * @param max Maximum value >= min. Cannot be smaller than 2.
      * @return Prime in range [min, max]
-     * @throws RuntimeException If a prime cannot be generated in given range
+     * @throws RuntimeException If there is no prime in given range
      */
     public static int randPrime(final int min, final int max) {
+        return randPrime(min, max, RandomContext.current());
+    }
+    
+    /**
+     * Generates a uniformly distributed pseudo-random prime between 'min' and 'max',
+     * inclusive.
+     * The difference between min and max can be at most Integer.MAX_VALUE - 1.
+     * @param min Minimum value. Non-negative integer.
+     * @param max Maximum value >= min. Cannot be smaller than 2.
+     * @param random Source of randomness
+     * @return Prime in range [min, max]
+     * @throws RuntimeException If there is no prime in given range
+     */
+    public static int randPrime(final int min, final int max, final RandomContext random) {
         notNegativeCheck(min);
         notLessThanCheck(max, 2);
         notLessThanCheck(max, min);
         overflowCheck(min, max);
 
-        int randomBitLength;
-        do {
-            randomBitLength = getNumberOfBits(randInt(min, max));
-        } while (randomBitLength < 2);
-        
-        final Random rand = new SecureRandom();
-        BigInteger n;
-        for (int i = 0; i < FOR_LOOP_ATTEMPTS; ++i) {
-            n = BigInteger.probablePrime(randomBitLength, rand);
-            if ((n.intValue() >= min) && (n.intValue() <= max))
-                return n.intValue();
+        if (max <= PrimeSieve.MAX_LIMIT) {
+            final int below = PrimeSieve.primeCount(min - 1);
+            final int count = PrimeSieve.primeCount(max) - below;
+            if (count > 0)
+                return PrimeSieve.nthPrime(below + 1 + randInt(0, count - 1, random));
+        } else if (max - min < RAND_PRIME_SCAN_LIMIT) {
+            final long[] primes = SegmentedSieve.primes(min, max + 1L);
+            if (primes.length > 0)
+                return (int)primes[randInt(0, primes.length - 1, random)];
+        } else {
+            while (true) {
+                final int n = randInt(min, max, random);
+                if (isPrime(n))
+                    return n;
+            }
         }
         throw new RuntimeException("Unable to generate a prime in range ["
                 + min + ", " + max + "].");
     }
     
     /**
-     * Generates a pseudo-random prime between 'min' and 'max', inclusive.
+     * Ranges above PrimeSieve.MAX_LIMIT narrower than this are sieved
+     * in randPrime(), wider ones contain thousands of primes.
+     */
+    private static final int RAND_PRIME_SCAN_LIMIT = 1 << 16;
+    
+    /**
+     * Generates a uniformly distributed pseudo-random prime between 'min' and 'max',
+     * inclusive.
      * The difference between min and max can be at most Integer.MAX_VALUE - 1.
      * @param min Minimum value. Non-negative integer.
-     * @param max Maximum value >= min. Cannot be smaller than 2.
+     * @param max Maximum value >= min. Cannot be smaller than 2 (3 if odd).
      * @param odd Generate only odd primes
      * @return Prime in range [min, max]
-     * @throws RuntimeException If a prime cannot be generated in given range
+     * @throws RuntimeException If there is no such prime in given range
      */
     public static int randPrime(final int min, final int max, final boolean odd) {
-        int n;
-        for (int i = 0; i < FOR_LOOP_ATTEMPTS; ++i) {
-            n = randPrime(min, max);
-            if (!odd || n != 2)
-                return n;
-        }
-        throw new RuntimeException("Unable to generate a prime in range ["
-                + min + ", " + max + "].");
+        return randPrime(min, max, odd, RandomContext.current());
+    }
+    
+    /**
+     * Generates a uniformly distributed pseudo-random prime between 'min' and 'max',
+     * inclusive.
+     * The difference between min and max can be at most Integer.MAX_VALUE - 1.
+     * @param min Minimum value. Non-negative integer.
+     * @param max Maximum value >= min. Cannot be smaller than 2 (3 if odd).
+     * @param odd Generate only odd primes
+     * @param random Source of randomness
+     * @return Prime in range [min, max]
+     * @throws RuntimeException If there is no such prime in given range
+     */
+    public static int randPrime(final int min, final int max, final boolean odd,
+            final RandomContext random) {
+        if (odd && (max >= 3))
+            return randPrime(Math.max(min, 3), max, random);
+        final int p = randPrime(min, max, random);
+        if (odd) // only 2 is in range
+            throw new RuntimeException("Unable to generate a prime in range ["
+                    + min + ", " + max + "].");
+        return p;
     }
     
     /**
@@ -196,13 +424,27 @@ public final class Algorithms {
      * @throws RuntimeException If a pair of coprimes cannot be generated in given range
      */
     public static Pair<Integer, Integer> randCoprime(final int min, final int max) {
+        return randCoprime(min, max, RandomContext.current());
+    }
+    
+    /**
+     * Generates a pseudo-random pair of coprime integers between 'min' and 'max', inclusive.
+     * The difference between min and max can be at most Integer.MAX_VALUE - 1.
+     * @param min Minimum value. Non-negative integer.
+     * @param max Maximum value >= min
+     * @param random Source of randomness
+     * @return Pair of coprime integers in range [min, max]
+     * @throws RuntimeException If a pair of coprimes cannot be generated in given range
+     */
+    public static Pair<Integer, Integer> randCoprime(final int min, final int max,
+            final RandomContext random) {
         notNegativeCheck(min);
         notLessThanCheck(max, min);
         overflowCheck(min, max);
         
-        Pair<Integer, Integer> test = randCoprimeTry(randInt(min, max), min, max);
+        Pair<Integer, Integer> test = randCoprimeTry(randInt(min, max, random), min, max, random);
         if (test.isEmpty())
-            test = randCoprimeTry(randPrime(min, max), min, max);
+            test = randCoprimeTry(randPrime(min, max, random), min, max, random);
         if (!test.isEmpty())
             return test;
         throw new RuntimeException("Unable to generate a pair of coprimes in range ["
@@ -210,38 +452,104 @@ public final class Algorithms {
     }
     
     private static Pair<Integer, Integer> randCoprimeTry(final int a,
-            final int min, final int max) {
+            final int min, final int max, final RandomContext random) {
         
-        int b = randInt(min, max);
+        int b = randInt(min, max, random);
         for (int i = 0; i < FOR_LOOP_ATTEMPTS; ++i) {
             if (isCoprime(a, b))
                 return new Pair<>(a, b);
-            b = randInt(min, max);
+            b = randInt(min, max, random);
         }
         return new Pair<>();
     }
      
     /**
-     * Euclidean algorithm for finding the greatest common divisor of two integers.
-     * See Handbook of Applied Cryptography, sec. 2.4, page 66 for details.
+     * Binary (Stein's) algorithm for finding the greatest common divisor of two integers.
+     * See Handbook of Applied Cryptography, sec. 14.4.1, page 606 for details.
      * @param a Integer
      * @param b Integer
-     * @return gcd(a, b)
+     * @return gcd(a, b) (Integer.MIN_VALUE if the result is 2^31)
      */
     public static int gcd(int a, int b) {
-        if (a < 0)
-            return gcd(-a, b);
-        if (b < 0)
-            return gcd(a, -b);
-        if (a < b)
-            return gcd(b, a);
+        // Math.abs(Integer.MIN_VALUE) stays 2^31 when treated as unsigned
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
         
-        while (b > 0) {
-            int r = a % b;
-            a = b;
-            b = r;
+        final int shift = Integer.numberOfTrailingZeros(a | b);
+        a >>>= Integer.numberOfTrailingZeros(a);
+        do {
+            b >>>= Integer.numberOfTrailingZeros(b);
+            if (a > b) { // both are odd, hence below 2^31
+                final int t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+    }
+    
+    /**
+     * Greatest common divisors of whole arrays, out[i] = gcd(a[i], b[i]).
+     * Arguments are checked once per call, the loop is the binary algorithm
+     * with the conditional swap replaced by arithmetic on the sign mask.
+     * @param a Array of integers
+     * @param b Array of integers of the same length
+     * @param out Array of the same length for the results (may be 'a' or 'b')
+     */
+    public static void gcd(final int[] a, final int[] b, final int[] out) {
+        arrayCheck(a.length, b);
+        arrayCheck(a.length, out);
+        for (int i = 0; i < out.length; ++i) {
+            int x = Math.abs(a[i]);
+            int y = Math.abs(b[i]);
+            if ((x == 0) || (y == 0)) {
+                out[i] = x | y;
+                continue;
+            }
+            final int shift = Integer.numberOfTrailingZeros(x | y);
+            x >>>= Integer.numberOfTrailingZeros(x);
+            do {
+                y >>>= Integer.numberOfTrailingZeros(y);
+                final int difference = y - x; // both are odd, hence below 2^31
+                final int sign = difference >> 31;
+                x += difference & sign;           // min(x, y)
+                y = (difference ^ sign) - sign;   // |y - x|
+            } while (y != 0);
+            out[i] = x << shift;
         }
-        return a;
+    }
+    
+    /**
+     * Binary (Stein's) algorithm for finding the greatest common divisor of two integers.
+     * @param a Integer
+     * @param b Integer
+     * @return gcd(a, b) (Long.MIN_VALUE if the result is 2^63)
+     */
+    public static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
+        
+        final int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                final long t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
     }
     
     /**
@@ -249,11 +557,13 @@ public final class Algorithms {
      * @param a Positive integer
      * @param b Positive integer
      * @return lcm(a, b)
+     * @throws RuntimeException if the result exceeds Integer.MAX_VALUE
      */
-    public static int lcm(int a, int b) {
-        positiveCheck(a);
-        positiveCheck(b);
-        return a * b / gcd(a, b);
+    public static int lcm(final int a, final int b) {
+        final long lcm = LongAlgorithms.lcm(a, b);
+        if (lcm > Integer.MAX_VALUE)
+            throw new RuntimeException("Overflow occured");
+        return (int)lcm;
     }
     
     /**
@@ -264,23 +574,37 @@ public final class Algorithms {
      * @param b Non-negative integer
      * @return List [d, x, y] where d = gcd(a, b) and x, y such that ax + by = d
      */
-    public static List<Integer> bezout(int a, int b) {
+    public static List<Integer> bezout(final int a, final int b) {
         notNegativeCheck(a);
         notNegativeCheck(b);
         notLessThanCheck(a, b);
-        if (b == 0)
-            return new ArrayList(Arrays.asList(a, 1, 0));
-        
-        int x, y, q, r;
-        int x1 = 0;
-        int x2 = 1;
-        int y1 = 1;
-        int y2 = 0;
+        final long[] result = new long[3];
+        extendedGcd(a, b, result);
+        return new ArrayList<>(Arrays.asList(
+                (int)result[0], (int)result[1], (int)result[2]));
+    }
+    
+    /**
+     * Extended Euclidean algorithm, allocation-free kernel of bezout().
+     * If a < b, the first step just swaps them, so the coefficients
+     * are the same as for bezout(b, a) in reversed order.
+     * @param a Non-negative integer
+     * @param b Non-negative integer
+     * @param result Array of length at least 3 to be filled with [d, x, y]
+     * where d = gcd(a, b) and x, y such that ax + by = d
+     */
+    public static void extendedGcd(long a, long b, final long[] result) {
+        notNegativeCheck(a);
+        notNegativeCheck(b);
+        long x1 = 0;
+        long x2 = 1;
+        long y1 = 1;
+        long y2 = 0;
         while (b > 0) {
-            q = a/b;
-            r = a - q*b;
-            x = x2 - q*x1;
-            y = y2 - q*y1;
+            final long q = a/b;
+            final long r = a - q*b;
+            final long x = x2 - q*x1;
+            final long y = y2 - q*y1;
             a = b;
             b = r;
             x2 = x1;
@@ -288,7 +612,30 @@ public final class Algorithms {
             y2 = y1;
             y1 = y;
         }
-        return new ArrayList(Arrays.asList(a, x2, y2));
+        result[0] = a;
+        result[1] = x2;
+        result[2] = y2;
+    }
+    
+    /**
+     * Coefficient 'x' of extendedGcd() computed without the other one.
+     * @param a Non-negative integer
+     * @param b Non-negative integer
+     * @return x such that ax + by = gcd(a, b) for some y
+     */
+    static long bezoutCoefficient(long a, long b) {
+        long x1 = 0;
+        long x2 = 1;
+        while (b > 0) {
+            final long q = a/b;
+            final long r = a - q*b;
+            final long x = x2 - q*x1;
+            a = b;
+            b = r;
+            x2 = x1;
+            x1 = x;
+        }
+        return x2;
     }
     
     /**
@@ -296,30 +643,83 @@ public final class Algorithms {
      * @return List of all positive divisors of 'n' in ascending order
      */
     public static List<Integer> divisors(final int n) {
+        return intArrayToList(divisorArray(n));
+    }
+    
+    /**
+     * Divisors of |n| are memoized.
+     * @param n Non-zero integer
+     * @return Array of all positive divisors of 'n' in ascending order
+     */
+    public static int[] divisorArray(final int n) {
         notZeroCheck(n);
-        if (n < 0)
-            return divisors(-n);
+        return DIVISOR_CACHE.get(Math.abs((long)n)).clone();
+    }
+    
+    /**
+     * @param n Non-zero integer
+     * @param bound Positive integer
+     * @return Array of all positive divisors of 'n' up to 'bound' in ascending order
+     */
+    public static int[] divisorArray(final int n, final int bound) {
+        notZeroCheck(n);
+        positiveCheck(bound);
+        final long m = Math.abs((long)n);
+        if (bound >= m)
+            return divisorArray(n);
+        return divisorArrayCompute(m, bound);
+    }
+    
+    /**
+     * Divisors of integers, see divisorArray().
+     */
+    private static final MemoCache<int[]> DIVISOR_CACHE = new MemoCache<>("divisors", 1024,
+            new MemoCache.Loader<int[]>() {
+                @Override
+                public int[] load(final long n) {
+                    return divisorArrayCompute(n, Integer.MAX_VALUE);
+                }
+            });
+    
+    /**
+     * Divisors are generated from the prime factorization of 'm',
+     * those exceeding 'bound' are pruned.
+     * @param m Long integer in range [1, 2^31]
+     * @param bound Positive integer
+     * @return Array of all positive divisors of 'm' up to 'bound'
+     * in ascending order
+     */
+    private static int[] divisorArrayCompute(final long m, final int bound) {
+        if (m == 1)
+            return new int[] {1};
         
-        final List<Integer> divisors = new ArrayList<>();
-        divisors.add(1);
-        if (n == 1)
-            return divisors;
+        final long[] factors = Factorizer.primeFactors(m);
+        int count = 1; // number of divisors without the bound
+        for (int i = 0, j = 0; i < factors.length; i = j) {
+            while ((j < factors.length) && (factors[j] == factors[i]))
+                ++j;
+            count *= j - i + 1;
+        }
         
-        if (!isPrime(n)) {
-            int i = 2;
-            int increment = 1;
-            if (n % 2 == 1) {
-                i = 3;
-                increment = 2; // test odd ones only
-            }
-            
-            for (; i <= n/2; i += increment) {
-                if (n % i == 0)
-                    divisors.add(i);
+        final int[] divisors = new int[count];
+        divisors[0] = 1;
+        int size = 1;
+        for (int i = 0, j = 0; i < factors.length; i = j) {
+            while ((j < factors.length) && (factors[j] == factors[i]))
+                ++j;
+            final int previousSize = size;
+            for (int k = 0; k < previousSize; ++k) {
+                long d = divisors[k];
+                for (int e = i; e < j; ++e) {
+                    d *= factors[i];
+                    if (d > bound)
+                        break;
+                    divisors[size++] = (int)d;
+                }
             }
         }
-        divisors.add(n);
-        return divisors;
+        Arrays.sort(divisors, 0, size);
+        return Arrays.copyOf(divisors, size);
     }
     
     /**
@@ -328,17 +728,35 @@ public final class Algorithms {
      * @return List of all positive divisors of both a and b in ascending order
      */
     public static List<Integer> commonDivisors(final int a, final int b) {
+        return intArrayToList(commonDivisorArray(a, b));
+    }
+    
+    /**
+     * @param a Non-zero integer
+     * @param b Non-zero integer
+     * @return Array of all positive divisors of both a and b in ascending order
+     */
+    public static int[] commonDivisorArray(final int a, final int b) {
+        return commonDivisorArray(a, b, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * @param a Non-zero integer
+     * @param b Non-zero integer
+     * @param bound Positive integer
+     * @return Array of all positive divisors of both a and b up to 'bound'
+     * in ascending order
+     */
+    public static int[] commonDivisorArray(final int a, final int b, final int bound) {
         notZeroCheck(a);
         notZeroCheck(b);
-        return listIntersection(divisors(a), divisors(b));
+        return divisorArray(gcd(a, b), bound);
     }
     
-    private static <T> List<T> listIntersection(final List<T> l1, final List<T> l2) {
-        final List<T> list = new ArrayList<>();
-        for (T t : l1) {
-            if (l2.contains(t))
-                list.add(t);
-        }
+    private static List<Integer> intArrayToList(final int[] array) {
+        final List<Integer> list = new ArrayList<>(array.length);
+        for (int i = 0; i < array.length; ++i)
+            list.add(array[i]);
         return list;
     }
     
@@ -347,7 +765,7 @@ public final class Algorithms {
      * @param n Non-negative integer
      * @return List of pairs (factor, exponent)
      */
-    public static List<Pair<Integer, Integer>> factorize(int n) {
+    public static List<Pair<Integer, Integer>> factorize(final int n) {
         notNegativeCheck(n);
         final List<Pair<Integer, Integer>> factors = new ArrayList<>();
         if (n < 4) {
@@ -355,16 +773,37 @@ public final class Algorithms {
             return factors;
         }
         
-        for (int i = 2; i <= n; ++i) {
-            final Pair<Integer, Integer> factor = new Pair<>(i, 0);
-            boolean factorFound = false;
-            while (n % i == 0) {
-                factorFound = true;
-                factor.setSecond(factor.getSecond() + 1);
-                n /= i;
-            }
-            if (factorFound)
-                factors.add(factor);
+        final long[] primes = Factorizer.primeFactors(n);
+        for (int i = 0; i < primes.length; ) {
+            final int prime = (int)primes[i];
+            int exponent = 0;
+            for (; (i < primes.length) && (primes[i] == prime); ++i)
+                ++exponent;
+            factors.add(new Pair<>(prime, exponent));
+        }
+        return factors;
+    }
+    
+    /**
+     * Prime factorization of a long integer.
+     * @param n Non-negative long integer
+     * @return List of pairs (factor, exponent)
+     */
+    public static List<Pair<Long, Integer>> factorize(final long n) {
+        notNegativeCheck(n);
+        final List<Pair<Long, Integer>> factors = new ArrayList<>();
+        if (n < 4) {
+            factors.add(new Pair<>(n, 1));
+            return factors;
+        }
+        
+        final long[] primes = Factorizer.primeFactors(n);
+        for (int i = 0; i < primes.length; ) {
+            final long prime = primes[i];
+            int exponent = 0;
+            for (; (i < primes.length) && (primes[i] == prime); ++i)
+                ++exponent;
+            factors.add(new Pair<>(prime, exponent));
         }
         return factors;
     }
@@ -376,20 +815,88 @@ public final class Algorithms {
      */
     public static int eulerPhi(final int n) {
         positiveCheck(n);
-        if (n == 1)
-            return 1;
-        
-        int phi = 1;
-        final List<Pair<Integer, Integer>> factors = factorize(n);
-        for (int i = 0; i < factors.size(); ++i) {
-            final int prime = factors.get(i).getFirst();
-            final int exponent = factors.get(i).getSecond();
-            phi *= prime - 1;
-            phi *= (int)Math.pow(prime, exponent - 1);
-        }
-        return phi;
+        if (n <= SmallestPrimeFactors.LIMIT)
+            return SmallestPrimeFactors.eulerPhi(n);
+        return (int)(long)PHI_CACHE.get(n);
+    }
+    
+    /**
+     * Euler's totient function of numbers above SmallestPrimeFactors.LIMIT.
+     */
+    static final MemoCache<Long> PHI_CACHE = new MemoCache<>("eulerPhi", 4096,
+            new MemoCache.Loader<Long>() {
+                @Override
+                public Long load(final long n) {
+                    final long[] factors = Factorizer.primeFactors(n);
+                    long phi = 1;
+                    for (int i = 0; i < factors.length; ++i) {
+                        final long p = factors[i];
+                        phi *= ((i > 0) && (factors[i - 1] == p)) ? p : p - 1;
+                    }
+                    return phi;
+                }
+            });
+    
+    /*** CACHES ***/
+    
+    /**
+     * @return Statistics of memoized factorizations (numbers above 2^20)
+     */
+    public static MemoCache<long[]> getFactorizationCache() {
+        return Factorizer.CACHE;
+    }
+    
+    /**
+     * @return Statistics of memoized values of eulerPhi() (numbers above 2^20)
+     */
+    public static MemoCache<Long> getEulerPhiCache() {
+        return PHI_CACHE;
+    }
+    
+    /**
+     * @return Statistics of memoized divisor arrays
+     */
+    public static MemoCache<int[]> getDivisorCache() {
+        return DIVISOR_CACHE;
+    }
+    
+    /**
+     * @return Statistics of memoized primitive roots
+     */
+    public static MemoCache<?> getPrimitiveRootCache() {
+        return PrimitiveRoots.CACHE;
+    }
+
+    /**
+     * Euler's totient function for all integers in a range, computed by a sieve.
+     * @param lo Positive integer
+     * @param hi Integer >= lo
+     * @return Array of phi(lo), phi(lo + 1), ..., phi(hi)
+     */
+    public static int[] eulerPhiRange(final int lo, final int hi) {
+        return MultiplicativeSieve.eulerPhi(lo, hi);
+    }
+
+    /**
+     * Möbius function for all integers in a range, computed by a sieve.
+     * @param lo Positive integer
+     * @param hi Integer >= lo
+     * @return Array of mu(lo), mu(lo + 1), ..., mu(hi), where mu(n) is 0
+     * if n is not square-free, otherwise (-1)^(number of prime factors of n)
+     */
+    public static int[] moebiusRange(final int lo, final int hi) {
+        return MultiplicativeSieve.moebius(lo, hi);
     }
 
+    /**
+     * Carmichael's function, the exponent of group Zn×.
+     * @param n Positive integer
+     * @return Smallest positive integer k such that a^k ≡ 1 (mod n) for all a in Zn×
+     */
+    public static int carmichaelLambda(final int n) {
+        return (int)LongAlgorithms.carmichaelLambda(n);
+    }
+    
     /**
      * Mods 'a' to closest positive integer modulo 'n'.
      * Example: -74 % 5 = -4 % 5 = 1
@@ -403,6 +910,20 @@ public final class Algorithms {
         return (a < 0 ? a + n : a);
     }
     
+    /**
+     * Mods all elements of an array in place to range [0, n),
+     * the sign correction is added without branching.
+     * @param a Array of integers
+     * @param n Positive integer
+     */
+    public static void normalizeIntModulo(final int[] a, final int n) {
+        positiveCheck(n);
+        for (int i = 0; i < a.length; ++i) {
+            final int r = a[i] % n;
+            a[i] = r + ((r >> 31) & n);
+        }
+    }
+    
     /**
      * Solving a congruence ax ≡ b (mod n).
      * @param a Integer
@@ -422,16 +943,11 @@ public final class Algorithms {
         if (b % numberOfSolutions != 0)
             return new Pair<>();
         
-        int bezoutCoefficientA; // coeffient r such that ra + sn = gcd(a, n)
-        if (a > n)
-            bezoutCoefficientA = bezout(a, n).get(1);
-        else
-            bezoutCoefficientA = bezout(n, a).get(2);
-
+        // coefficient r such that ra + sn = gcd(a, n)
+        final long bezoutCoefficientA = bezoutCoefficient(a, n);
         final int shiftedModulus = n / numberOfSolutions;
-        int x = (bezoutCoefficientA * b) / numberOfSolutions;
-        x = normalizeIntModulo(x, shiftedModulus);
-        return new Pair<>(x, shiftedModulus);
+        final int x = (int)((bezoutCoefficientA * b / numberOfSolutions) % shiftedModulus);
+        return new Pair<>(normalizeIntModulo(x, shiftedModulus), shiftedModulus);
     }
 
     /**
@@ -451,48 +967,53 @@ public final class Algorithms {
         listCheck(count, aInList);
         listCheck(count, bInList);
         listCheck(count, nInList);
-        final List<Integer> aList = new ArrayList<>(aInList);
-        final List<Integer> bList = new ArrayList<>(bInList);
-        final List<Integer> nList = new ArrayList<>(nInList);
+        final long[] a = new long[count];
+        final long[] b = new long[count];
+        final long[] n = new long[count];
         for (int i = 0; i < count; ++i) {
-            final int ai = aList.get(i);
-            final int bi = bList.get(i);
-            final int ni = nList.get(i);
-            positiveCheck(ni);
-            aList.set(i, normalizeIntModulo(ai, ni));
-            bList.set(i, normalizeIntModulo(bi, ni));
+            a[i] = aInList.get(i);
+            b[i] = bInList.get(i);
+            n[i] = nInList.get(i);
+            positiveCheck(n[i]);
         }
         
-        final Pair<Integer, Integer> solution = new Pair<>();
-        for (int i = 0; i < count; ++i) {
-            final Pair<Integer, Integer> partial =
-                    linearCongruence(aList.get(i), bList.get(i), nList.get(i));
-            if (partial.isEmpty()) // no solutions for whole system
-                return new Pair<>(); 
-            if (partial.equals(new Pair<>(0, 1))) { // infinite solutions for congruence 'i'
-                if ((solution.isEmpty()) && (Utils.lastForCycle(i, count)))
-                    return new Pair<>(0, 1);
-                
-                continue;
-            }
-            
-            // xi == partialX + partialM * k
-            final int partialX = partial.getFirst();
-            final int partialM = partial.getSecond();
-            if (solution.isEmpty()) {
-                solution.setFirst(partialX);
-                solution.setSecond(partialM);
-            } else {
-                solution.setFirst(solution.getFirst() + solution.getSecond() * partialX);
-                solution.setSecond(solution.getSecond() * partialM);
-            }
-            
-            if (!Utils.lastForCycle(i, count)) {
-                bList.set(i+1, bList.get(i+1) - (aList.get(i+1) * solution.getFirst()));
-                aList.set(i+1, aList.get(i+1) * solution.getSecond());
-            }
-        }
-        return solution;
+        final long[] solution = ChineseRemainder.solve(a, b, n);
+        if (solution.length == 0)
+            return new Pair<>();
+        if (solution[1] > Integer.MAX_VALUE)
+            throw new RuntimeException("Overflow occured");
+        return new Pair<>((int)solution[0], (int)solution[1]);
+    }
+    
+    /**
+     * Solving a system of congruences of type a_i x ≡ b_i (mod n_i),
+     * the moduli need not be coprime.
+     * @param a Array of integers
+     * @param b Array of integers
+     * @param n Array of positive integers
+     * @return Array [solution, modulus] OR empty array if no solutions exist
+     * OR array [0, 1] if infinite solutions exist.
+     * @throws RuntimeException if the modulus exceeds Long.MAX_VALUE,
+     * see linearCongruenceSystemBig()
+     */
+    public static long[] linearCongruenceSystem(final long[] a, final long[] b, final long[] n) {
+        return ChineseRemainder.solve(a, b, n);
+    }
+    
+    /**
+     * Same as linearCongruenceSystem(long[], long[], long[]),
+     * the modulus of the solution may exceed Long.MAX_VALUE.
+     * Suitable for systems of thousands of congruences, which are merged
+     * as a product tree in parallel.
+     * @param a Array of integers
+     * @param b Array of integers
+     * @param n Array of positive integers
+     * @return Array [solution, modulus] OR empty array if no solutions exist
+     * OR array [0, 1] if infinite solutions exist.
+     */
+    public static BigInteger[] linearCongruenceSystemBig(final long[] a,
+            final long[] b, final long[] n) {
+        return ChineseRemainder.solveBig(a, b, n);
     }
 
     /**
@@ -519,22 +1040,7 @@ public final class Algorithms {
      * @return Order of element 'element' in group Zn×
      */
     public static int unitGroupElementOrder(final int element, final int n) {
-        positiveCheck(element);
-        notLessThanCheck(n, 2);
-        if (element == 1)
-            return 1;
-        
-        final List<Integer> unitGroup = elementsOfUnitGroup(n);
-        if (!unitGroup.contains(element))
-            throw new IllegalArgumentException(element + " is not an element of Z" + n + "×");
-        
-        final List<Integer> possibleElementOrders = divisors(unitGroup.size());
-        for (int i = 0; i < possibleElementOrders.size(); ++i) {
-            final int currentOrder = possibleElementOrders.get(i);
-            if (modPow(element, currentOrder, n) == 1)
-                return currentOrder;
-        }
-        return Integer.MAX_VALUE;
+        return (int)LongAlgorithms.unitGroupElementOrder(element, n);
     }
     
     /**
@@ -558,15 +1064,141 @@ public final class Algorithms {
             return ((exp % 2 == 0) ? 1 : -1 + mod);
         if (exp == 1)
             return base;
-                    
-        final BigInteger bigBase = intToBigInteger(base);
-        final BigInteger bigExp = intToBigInteger(exp);
-        final BigInteger bigMod = intToBigInteger(mod);
-        return bigBase.modPow(bigExp, bigMod).intValue();
+        return (int)modPowSmall(base, exp, mod);
     }
     
-    private static BigInteger intToBigInteger(final int n) {
-        return new BigInteger(((Integer)n).toString());
+    /**
+     * Number of elements processed together by the array kernels (fits into L1 cache).
+     */
+    private static final int BATCH_BLOCK = 1024;
+    
+    /**
+     * Modular exponentiation of whole arrays with a common exponent,
+     * out[i] = (base[i]^exp) mod (mod). Square-and-multiply runs over the bits
+     * of 'exp' once, every step is a uniform loop over all elements.
+     * @param base Array of integers
+     * @param exp Non-negative integer
+     * @param mod Positive integer
+     * @param out Array of the same length for the results (may be 'base')
+     */
+    public static void modPow(final int[] base, final int exp, final int mod, final int[] out) {
+        notNegativeCheck(exp);
+        positiveCheck(mod);
+        arrayCheck(base.length, out);
+        final double inverse = 1.0 / mod;
+        final int[] square = new int[Math.min(BATCH_BLOCK, out.length)];
+        for (int start = 0; start < out.length; start += BATCH_BLOCK) {
+            final int length = Math.min(BATCH_BLOCK, out.length - start);
+            for (int i = 0; i < length; ++i) {
+                final int r = base[start + i] % mod;
+                square[i] = r + ((r >> 31) & mod);
+                out[start + i] = 1 % mod;
+            }
+            for (int e = exp; e != 0; e >>>= 1) {
+                if ((e & 1) == 1) {
+                    for (int i = 0; i < length; ++i)
+                        out[start + i] = mulModReciprocal(out[start + i], square[i], mod, inverse);
+                }
+                if (e > 1) {
+                    for (int i = 0; i < length; ++i)
+                        square[i] = mulModReciprocal(square[i], square[i], mod, inverse);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Division-free (a*b) mod m: the quotient estimated in double precision
+     * is off by at most one, the remainder is corrected by sign masks.
+     * @param a Integer in range [0, m)
+     * @param b Integer in range [0, m)
+     * @param m Positive integer
+     * @param inverse 1.0 / m
+     * @return (a*b) mod m
+     */
+    private static int mulModReciprocal(final int a, final int b, final int m,
+            final double inverse) {
+        final long product = (long)a * b;
+        long r = product - (long)((double)product * inverse) * m;
+        r += (r >> 63) & m;
+        r -= m;
+        r += (r >> 63) & m;
+        return (int)r;
+    }
+    
+    /**
+     * Modular exponentiation by square-and-multiply in 64-bit arithmetic.
+     * Odd moduli above 2^31 are handled in Montgomery form. For even ones
+     * the odd part and the power of two are computed separately and combined
+     * by the Chinese remainder theorem (powers mod 2^k are native products).
+     * @param base Integer
+     * @param exp Non-negative integer
+     * @param mod Positive integer
+     * @return (base^exp) mod (mod)
+     */
+    public static long modPow(long base, final long exp, final long mod) {
+        notNegativeCheck(exp);
+        positiveCheck(mod);
+        base %= mod;
+        if (base < 0)
+            base += mod;
+        if (mod == 1)
+            return 0;
+        if (mod <= SMALL_MODULUS)
+            return modPowSmall(base, exp, mod);
+        
+        final int k = Long.numberOfTrailingZeros(mod);
+        final long oddPart = mod >>> k;
+        final long oddResult = modPowOdd(base % oddPart, exp, oddPart);
+        if (k == 0)
+            return oddResult;
+        
+        final long mask = (1L << k) - 1;
+        long powerOfTwoResult = 1;
+        long b = base;
+        for (long e = exp; e > 0; e >>>= 1) {
+            if ((e & 1) == 1)
+                powerOfTwoResult *= b;
+            b *= b;
+        }
+        // x = oddResult + oddPart * t, where t = (r2 - oddResult) / oddPart mod 2^k
+        final long t = ((powerOfTwoResult - oddResult) * Montgomery.inverse(oddPart)) & mask;
+        return oddResult + oddPart * t;
+    }
+    
+    /**
+     * Products of two residues modulo a number up to this bound fit into a long.
+     */
+    private static final long SMALL_MODULUS = 1L << 31;
+    
+    /**
+     * @param base Integer in range [0, mod)
+     * @param exp Non-negative integer
+     * @param mod Positive integer <= SMALL_MODULUS
+     * @return (base^exp) mod (mod)
+     */
+    private static long modPowSmall(long base, long exp, final long mod) {
+        long result = 1 % mod;
+        while (exp > 0) {
+            if ((exp & 1) == 1)
+                result = result * base % mod;
+            base = base * base % mod;
+            exp >>>= 1;
+        }
+        return result;
+    }
+    
+    /**
+     * @param base Integer in range [0, mod)
+     * @param exp Non-negative integer
+     * @param mod Odd positive integer
+     * @return (base^exp) mod (mod)
+     */
+    private static long modPowOdd(final long base, final long exp, final long mod) {
+        if (mod <= SMALL_MODULUS)
+            return modPowSmall(base, exp, mod);
+        final Montgomery mont = new Montgomery(mod);
+        return mont.fromMontgomery(mont.pow(mont.toMontgomery(base), exp));
     }
     
     /**
@@ -576,11 +1208,54 @@ public final class Algorithms {
      * @return 1, 0 or -1
      */
     public static int legendreSymbol(final int a, final int p) {
-        isPrimeCheck(p, true);
-        int value = modPow(a, (p-1)/2, p);
-        if (value == p - 1)
-            value = -1;
-        return value;
+        return legendreSymbol(a, p, true);
+    }
+    
+    /**
+     * Computes the Legendre Symbol.
+     * @param a Integer
+     * @param p Odd prime
+     * @param validate Check that 'p' is an odd prime (callers which already know
+     * it, e.g. from a factorization, can skip the check)
+     * @return 1, 0 or -1
+     */
+    public static int legendreSymbol(final int a, final int p, final boolean validate) {
+        if (validate)
+            isPrimeCheck(p, true);
+        return jacobiSymbol(a, p);
+    }
+    
+    /**
+     * Computes the Jacobi symbol by the binary algorithm based on
+     * the law of quadratic reciprocity. For prime 'n' it equals the Legendre symbol.
+     * See Handbook of Applied Cryptography, sec. 2.4.5, page 73 for details.
+     * @param a Integer
+     * @param n Odd positive integer
+     * @return 1, 0 or -1
+     */
+    public static int jacobiSymbol(long a, long n) {
+        positiveCheck(n);
+        if (n % 2 == 0)
+            throw new IllegalArgumentException(n + " is not odd.");
+        a %= n;
+        if (a < 0)
+            a += n;
+        
+        int result = 1;
+        while (a != 0) {
+            final int twos = Long.numberOfTrailingZeros(a);
+            a >>= twos;
+            // (2/n) = -1 <=> n ≡ 3, 5 (mod 8)
+            if ((twos % 2 == 1) && (((n & 7) == 3) || ((n & 7) == 5)))
+                result = -result;
+            // reciprocity: (a/n) = -(n/a) <=> a ≡ n ≡ 3 (mod 4)
+            if ((a & n & 2) != 0)
+                result = -result;
+            final long r = n % a;
+            n = a;
+            a = r;
+        }
+        return (n == 1) ? result : 0;
     }
     
     /**
@@ -624,189 +1299,35 @@ public final class Algorithms {
     
     /**
      * Solves the quadratic congruence of form x^2 ≡ a (mod m).
+     * The modulus of the result is the smallest period of the set of solutions.
      * @param a Integer
      * @param m Positive integer
      * @return List of solutions in ascending order ending with modulus,
      * e.g. [x1, x2, ..., xn, m]
      */
-    public static List<Integer> quadraticCongruenceSimple(int a, int m) {
-        positiveCheck(m);
-        a = normalizeIntModulo(a, m);
-        if (a == 0) {
-            if (isPerfectSquare(m))
-                m = (int)Math.sqrt(m);
-            else if ((isPowerOf2(m)) && (m > 2))
-                m = (int)Math.sqrt(findNextHigherPowerOf4(m));
-            else if ((m % 2 == 0) && ((m/2 * m/2) % m == 0))
-                m = m/2;
-            return new ArrayList<>(Arrays.asList(0, m));
-        }
-        
-        // Handle powers of 2 separately :(
-        if (isPowerOf2(m)) {
-            if (m < 16) {
-                if (a < 2)
-                    return new ArrayList<>(Arrays.asList(a, 2));
-                if ((a == 4) && (m == 8))
-                    return new ArrayList<>(Arrays.asList(2, 4));
-                
-                return new ArrayList<>();
-            }
-            
-            // 0, 1, 4, 9, 16, 17, 25, 32, 33... are quadratic residues mod 2^k
-            if (a % 8 == 1)
-                return quadraticCongruenceSimpleSolve(a, m);
-            if (!isPowerOf4(a))
-                return new ArrayList<>();
-            
-            m = m/2;
-            final int x1 = (int)Math.sqrt(a);
-            final int limit = findHighestPowerLessThan(4, m);
-            if (a == limit) {
-                m = (int)Math.sqrt(findNextHigherPowerOf4(m));
-                return new ArrayList<>(Arrays.asList(x1, m));
-            }
-            if ((a == limit/4) && (isPowerOf4(m))) {
-                m = (int)Math.sqrt(m);
-                return new ArrayList<>(Arrays.asList(x1, m));
-            }
-            
-            m = m/2;
-            final List<Integer> result = new ArrayList<>();
-            quadraticCongruenceSimpleFillSolution(result, x1, m);
-            result.add(m);
-            return result;
-        }
-        
-        /**
-         * Let m = m1 * m2 * ... * mn = p1^e1 * p2^e2 * ... * pn^en.
-         * The input congruence is equivalent to system of congruences:
-         * x^2 ≡ a (mod p1), x^2 ≡ a (mod p2), ..., x^2 ≡ a (mod pn).
-         * (The exponents are negligible, since p^e|a => p|a.)
-         * Now each subcongruence must have a solution (=> the corresponding
-         * Legendre symbol is 0 or 1).
-         */
-        final List<Pair<Integer,Integer>> factorization = factorize(m);
-        for (int i = 0; i < factorization.size(); ++i) {
-            final int pi = factorization.get(i).getFirst();
-            if (pi == 2)
-                continue;
-            if (legendreSymbol(a, pi) == -1) // => no solutions to whole system
-                return new ArrayList<>();
-        }
-        
-        // Try to find solution with halved modulus
-        if (m % 2 == 0) {
-            boolean halfModSolution = true;
-            final int halfMod = m/2;
-            final List<Integer> test = quadraticCongruenceSimpleSolve(a, halfMod);
-            for (int i = 0; i < test.size() - 1; ++i) {
-                final int testXi = test.get(i) + halfMod;
-                if (((testXi * testXi) % m) != a) {
-                    halfModSolution = false;
-                    break;
-                }
-            }
-            if (halfModSolution) {
-                if (a != halfMod)
-                    return test;
-                final List<Integer> result = new ArrayList<>();
-                for (int i = 0; i < test.size() - 1; ++i) {
-                    final int x1 = test.get(i) + halfMod;
-                    quadraticCongruenceSimpleFillSolution(result, x1, m);
-                    if (result.size() == 2)
-                        break;
-                }
-                if (!result.isEmpty()) {
-                    Collections.sort(result);
-                    result.add(m);
-                }
-                return result;
-            }
-        }
-        
-        return quadraticCongruenceSimpleSolve(a, m);
-    }
-    
-    /**
-     * Helper method only for quadraticCongruenceSimple().
-     * Tries to find solution by force.
-     */
-    private static List<Integer> quadraticCongruenceSimpleSolve(int a, final int m) {
-        a = normalizeIntModulo(a, m);
-        int testA = a;
-        int testM = m;
-        if (isPowerOf2(m))
-            testM = m/2;
-        
-        final List<Integer> result = new ArrayList<>();
-        for (int i = 0; i < testM; ++i) {
-            if (isPerfectSquare(testA)) {
-                final int x1 = (int)Math.sqrt(testA);
-                if (modPow(x1, 2, m) == a)
-                    quadraticCongruenceSimpleFillSolution(result, x1, testM);
-                if (result.size() == 4)
-                    break;
-            }
-            testA += testM;
-        }
-        
-        if (!result.isEmpty()) {
-            Collections.sort(result);
-            result.add(testM);
-            if ((result.size() == 5) && (m % 2 == 0))  // 5 = 4 + 1 for mod
-                return binomialCongruenceRuleOut(result);
-        }
+    public static List<Integer> quadraticCongruenceSimple(final int a, final int m) {
+        final long[] roots = ModularSquareRoots.solve(a, m);
+        final List<Integer> result = new ArrayList<>(roots.length);
+        for (int i = 0; i < roots.length; ++i)
+            result.add((int)roots[i]);
         return result;
     }
     
     /**
-     * Helper method only for quadraticCongruenceSimple().
-     * Fills the input collection with results.
-     */
-    private static void quadraticCongruenceSimpleFillSolution(
-            final List<Integer> result, final int x1, final int m) {
-        final int x2 = normalizeIntModulo(-x1, m);
-        if (!result.contains(x1))
-            result.add(x1);
-        if (!result.contains(x2))
-            result.add(x2);
-    }
-    
-    /**
-     * Helper method for quadraticCongruenceSimpleSolve() and binomialCongruence().
-     * Rules out equivalent solutions for even modulus.
+     * Solves the quadratic congruence of form x^2 ≡ a (mod m).
+     * @param a Integer
+     * @param m Positive integer
+     * @return List of solutions in ascending order ending with modulus,
+     * e.g. [x1, x2, ..., xn, m]
      */
-    private static List<Integer> binomialCongruenceRuleOut(final List<Integer> result) {
-        if (result.isEmpty())
-            return result;
-        
-        final int resultSize = result.size();
-        final int m = result.get(resultSize - 1); // last item is modulus
-        if (m % 2 == 1)
-            return result;
-        
-        final int testM = m/2;         
-        final int x1 = normalizeIntModulo(result.get(0), testM); // first solution
-        final List<Integer> testResult = new ArrayList<>(Arrays.asList(x1));
-        for (int i = 1; i < resultSize - 1; ++i) {
-            final int xi = normalizeIntModulo(result.get(i), testM);
-            final int terminator = testResult.size();
-            for (int j = 0; j < terminator; ++j) {
-                if (xi == testResult.get(j))
-                    break;
-                if (Utils.lastForCycle(j, terminator))
-                    testResult.add(xi);
-            }
-        }
-        
-        if (testResult.size() < resultSize - 1) {
-            testResult.add(testM);
-            return testResult;
-        }
+    public static List<Long> quadraticCongruenceSimple(final long a, final long m) {
+        final long[] roots = ModularSquareRoots.solve(a, m);
+        final List<Long> result = new ArrayList<>(roots.length);
+        for (int i = 0; i < roots.length; ++i)
+            result.add(roots[i]);
         return result;
     }
- 
+    
     /**
      * Solves the quadratic congruence of form ax^2 + bx + c ≡ 0 (mod m).
      * @param a Integer
@@ -871,22 +1392,31 @@ public final class Algorithms {
      * @param subResult Solution of simple quadratic congruence of form
      * t^2 ≡ b*b - 4*a*c (mod 4*m)
      * @param m Input modulus m
-     * @return Solution for input quadratic congruence ax^2 + bx + c ≡ 0 (mod m)
+     * @return All solutions t of the sub-result modulo 2*m in ascending order
+     * ending with 2*m (each gives one solution x of 2ax + b ≡ t (mod 2*m))
      */
     public static List<Integer> quadraticCongruenceGeneralGenerate(
             final List<Integer> subResult, final int m) {
         
-        final int currentMod = subResult.get(subResult.size() - 1);
+        final int lastIndex = subResult.size() - 1;
+        final int currentMod = subResult.get(lastIndex);
         final int requiredMod = 2*m;
-        if (currentMod >= requiredMod)
-            return subResult;
+        // currentMod divides 4*m, so listing roots up to 4*m covers all classes mod 2*m
+        final int limit = (requiredMod % currentMod == 0) ? requiredMod : 2*requiredMod;
+        final int steps = limit / currentMod;
+        final int[] roots = new int[lastIndex * steps];
+        int count = 0;
+        for (int i = 0; i < lastIndex; ++i) {
+            long generator = subResult.get(i);
+            for (int j = 0; j < steps; ++j, generator += currentMod)
+                roots[count++] = (int)(generator % requiredMod);
+        }
+        Arrays.sort(roots);
         
-        int generator = subResult.get(0);
         final List<Integer> generated = new ArrayList<>();
-        final int generatedSize = requiredMod / currentMod;
-        for (int i = 0; i < generatedSize; ++i) {
-            generated.add(generator);
-            generator += currentMod;
+        for (int i = 0; i < count; ++i) {
+            if ((i == 0) || (roots[i] != roots[i - 1]))
+                generated.add(roots[i]);
         }
         generated.add(requiredMod);
         return generated;
@@ -900,6 +1430,8 @@ public final class Algorithms {
         notLessThanCheck(m, 2);
         if ((m == 2) || (m == 4) || (isPrime(m)))
             return true;
+        if (m <= SmallestPrimeFactors.LIMIT)
+            return SmallestPrimeFactors.isOddPrimePowerOrDouble(m);
         
         final List<Pair<Integer, Integer>> factorization = factorize(m);
         final int factSize = factorization.size();
@@ -918,6 +1450,52 @@ public final class Algorithms {
                 (bFirst > 2) && (isPrime(bFirst));
     }
 
+    /**
+     * @param m Integer > 1 such that primitive roots mod m exist
+     * @return Smallest primitive root mod m
+     */
+    public static int primitiveRoot(final int m) {
+        if (!primitiveRootsExist(m))
+            throw new IllegalArgumentException("Primitive roots mod " + m + " do not exist.");
+        return (int)PrimitiveRoots.of(m).generator;
+    }
+
+    /**
+     * All primitive roots are g^k for k coprime with phi(m),
+     * where g is the smallest one.
+     * @param m Integer > 1 such that primitive roots mod m exist
+     * @return List of all primitive roots mod m in ascending order
+     */
+    public static List<Integer> allPrimitiveRoots(final int m) {
+        if (!primitiveRootsExist(m))
+            throw new IllegalArgumentException("Primitive roots mod " + m + " do not exist.");
+        final PrimitiveRoots.Root root = PrimitiveRoots.of(m);
+        final long[] orderFactors = root.orderFactors;
+        final List<Integer> result = new ArrayList<>();
+        long power = 1;
+        for (long k = 1; k <= root.order; ++k) {
+            power = power * root.generator % m;
+            boolean coprime = true;
+            for (int i = 0; (i < orderFactors.length) && coprime; ++i)
+                coprime = k % orderFactors[i] != 0;
+            if (coprime)
+                result.add((int)power);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Discrete logarithm (index) of h to the base g.
+     * @param g Integer coprime with m
+     * @param h Integer
+     * @param m Integer > 1
+     * @return Smallest x >= 0 such that g^x ≡ h (mod m) OR -1 if no such x exists
+     */
+    public static int discreteLog(final int g, final int h, final int m) {
+        return (int)DiscreteLogarithm.log(g, h, m);
+    }
+
     /**
      * Solves the binomial congruence of form x^n ≡ a (mod m).
      * @param n Positive integer
@@ -939,53 +1517,40 @@ public final class Algorithms {
         if (n == 2)
             return quadraticCongruenceSimple(a, m);
         
-        int maxNumberOfSolutions = m;
-        if ((isCoprime(a, m)) && (primitiveRootsExist(m))) {
-            final int phiM = eulerPhi(m);
-            final int d = gcd(n, phiM);
-            if (modPow(a, phiM / d, m) != 1)
-                return new ArrayList<>();
-            maxNumberOfSolutions = d;
-        }
-        return binomialCongruenceSolve(n, a, m, maxNumberOfSolutions);
+        final long[] solution =
+                LongAlgorithms.binomialCongruenceRuleOut(ModularNthRoots.solve(n, a, m), m);
+        final List<Integer> result = new ArrayList<>(solution.length);
+        for (int i = 0; i < solution.length; ++i)
+            result.add((int)solution[i]);
+        return result;
     }
     
     /**
-     * Helper method only for binomialCongruence().
-     * Tries to find solution by force.
+     * Generates modulus for quadratic (simple and general) and binomial congruences.
+     * @param odd Allow only odd primes (do not allow even modulus 2*p)
+     * @return m which is a product of 2 different odd primes, min. 6, max. 95
      */
-    private static List<Integer> binomialCongruenceSolve(final int n, final int a,
-            final int m, final int maxSolutions) {
-        
-        final List<Integer> result = new ArrayList<>();
-        for (int i = 0; i < m; ++i) {
-            if (modPow(i, n, m) == a) {
-                result.add(i);
-                if (result.size() == maxSolutions)
-                    break;
-            }
-        }
-        if (!result.isEmpty())
-            result.add(m);
-        return binomialCongruenceRuleOut(result);
+    public static int generateModulus(final boolean odd) {
+        return generateModulus(odd, RandomContext.current());
     }
     
     /**
      * Generates modulus for quadratic (simple and general) and binomial congruences.
      * @param odd Allow only odd primes (do not allow even modulus 2*p)
+     * @param random Source of randomness
      * @return m which is a product of 2 different odd primes, min. 6, max. 95
      */
-    public static int generateModulus(final boolean odd) {
+    public static int generateModulus(final boolean odd, final RandomContext random) {
         final int[] primes = new int[] {2, 3, 5, 7, 11, 13, 17, 19, 23, 29,
             31, 37, 41, 43, 47};
 
         // start on index 0, 1, 2, 3
-        final int startingIndex = randInt(odd ? 1 : 0, 3);  
+        final int startingIndex = randInt(odd ? 1 : 0, 3, random);  
         // end max. on index 14, 10, 7, 5
         int maxFinishingIndex = 13 - startingIndex * 3;     
         if (startingIndex == 0 || startingIndex == 3)
             ++maxFinishingIndex;
-        final int finishingIndex = randInt(startingIndex + 1, maxFinishingIndex);
+        final int finishingIndex = randInt(startingIndex + 1, maxFinishingIndex, random);
 
         return primes[startingIndex] * primes[finishingIndex];
     }
@@ -996,43 +1561,25 @@ public final class Algorithms {
      * @return Independent cycles into which the input decomposes
      */
     public static Set<List<Integer>> permutationCycles(final List<Integer> inputPerm) {
-        permutationCheck(inputPerm);
-        final List<Integer> indicesToVisit = new ArrayList<>();
-        for (int i = 0; i < inputPerm.size(); ++i)
-            indicesToVisit.add(i);
-        
+        final int[][] cycles = Permutations.cycles(permutationToArray(inputPerm));
         final Set<List<Integer>> result = new HashSet<>();
-        List<Integer> currentPerm = new ArrayList<>();
-        int i = 0;
-        while (!indicesToVisit.isEmpty()) {
-            if (!indicesToVisit.contains(i))    // Already visited this index
-                i = indicesToVisit.get(0);      // Move to next index
-            
-            indicesToVisit.remove((Integer)i);  // Object i, not object on index i
-            final int element = inputPerm.get(i);
-            if (currentPerm.isEmpty())
-                currentPerm.add(i + 1);
-            if (currentPerm.contains(element)) {// End of cycle
-                if (currentPerm.size() > 1)     // Do not include id's in result
-                    result.add(currentPerm);
-                currentPerm = new ArrayList<>();
-                continue;
-            }
-            currentPerm.add(element);
-            i = element - 1;
-        }
+        for (int i = 0; i < cycles.length; ++i)
+            result.add(intArrayToList(cycles[i]));
         return result;
     }
     
     /**
      * @param cycles Permutation given by its independent cycles
      * @return Order of a permutation
+     * @throws RuntimeException if the order exceeds Integer.MAX_VALUE
      */
     public static int permutationOrder(final Set<List<Integer>> cycles) {
-        int order = 1;
+        long order = 1;
         for (List<Integer> cycle : cycles)
-            order = lcm(order, cycle.size());
-        return order;
+            order = LongAlgorithms.lcm(order, cycle.size());
+        if (order > Integer.MAX_VALUE)
+            throw new RuntimeException("Overflow occured");
+        return (int)order;
     }
     
     /**
@@ -1040,8 +1587,10 @@ public final class Algorithms {
      * @return Order of a permutation given by its cycles
      */
     public static int permutationOrder(final List<Integer> inputPerm) {
-        final Set<List<Integer>> cycles = permutationCycles(inputPerm);
-        return permutationOrder(cycles);
+        final long order = Permutations.order(permutationToArray(inputPerm));
+        if (order > Integer.MAX_VALUE)
+            throw new RuntimeException("Overflow occured");
+        return (int)order;
     }
     
     /**
@@ -1050,12 +1599,24 @@ public final class Algorithms {
      * @return Permutation with 'size' elements
      */
     public static List<Integer> randPermutation(final int size) {
-        positiveCheck(size);
-        final List<Integer> permutation = new ArrayList<>();
-        for (int i = 1; i < size + 1; ++i)
-            permutation.add(i);
-        Collections.shuffle(permutation);
-        return permutation;
+        return randPermutation(size, RandomContext.current());
+    }
+    
+    /**
+     * Generates a random permutation of given size
+     * @param size Positive integer
+     * @param random Source of randomness
+     * @return Permutation with 'size' elements
+     */
+    public static List<Integer> randPermutation(final int size, final RandomContext random) {
+        return intArrayToList(Permutations.random(size, random));
+    }
+    
+    private static int[] permutationToArray(final List<Integer> perm) {
+        final int[] result = new int[perm.size()];
+        for (int i = 0; i < result.length; ++i)
+            result[i] = perm.get(i);
+        return result;
     }
     
     /*** CHECKS ***/
@@ -1087,6 +1648,33 @@ public final class Algorithms {
         notLessThanCheck(a, 1);
     }
     
+    /**
+     * Throws exception if a < lowerBound.
+     * @param a Long integer
+     * @param lowerBound Long integer
+     */
+    public static void notLessThanCheck(final long a, final long lowerBound) {
+        if (a < lowerBound)
+            throw new IllegalArgumentException("Input argument " + a +
+                    " should not be smaller than " + lowerBound);
+    }
+    
+    /**
+     * Throws exception if a is negative.
+     * @param a Long integer
+     */
+    public static void notNegativeCheck(final long a) {
+        notLessThanCheck(a, 0L);
+    }
+    
+    /**
+     * Throws exception if a < 1.
+     * @param a Long integer
+     */
+    public static void positiveCheck(final long a) {
+        notLessThanCheck(a, 1L);
+    }
+    
     /**
      * Throws exception if a > upperBound.
      * @param a Integer
@@ -1098,6 +1686,17 @@ public final class Algorithms {
                     " should not be greater than " + upperBound);
     }
     
+    /**
+     * Throws exception if a > upperBound.
+     * @param a Long integer
+     * @param upperBound Long integer
+     */
+    public static void notGreaterThanCheck(final long a, final long upperBound) {
+        if (a > upperBound)
+            throw new IllegalArgumentException("Input argument " + a +
+                    " should not be greater than " + upperBound);
+    }
+    
     /**
      * Throws exception if a == 0.
      * @param a Integer
@@ -1142,6 +1741,18 @@ public final class Algorithms {
                     + ", expected: " + count);
     }
     
+    /**
+     * Throws exception if length of the array is different than count
+     * @param count Non-negative integer
+     * @param array Array of integers
+     */
+    public static void arrayCheck(final int count, final int[] array) {
+        notNegativeCheck(count);
+        if (array.length != count)
+            throw new IllegalArgumentException("Array length: " + array.length
+                    + ", expected: " + count);
+    }
+    
     /**
      * Throws exception if the difference between max and min is
      * Integer.MAX_VALUE or more.
@@ -1163,11 +1774,6 @@ public final class Algorithms {
      * @param perm List of integers
      */
     public static void permutationCheck(final List<Integer> perm) {
-        final List<Integer> permCopy = new ArrayList<>(perm);
-        Collections.sort(permCopy);
-        for (int i = 0; i < permCopy.size(); ++i) {
-            if (permCopy.get(i) != i + 1)
-                throw new IllegalArgumentException(perm + " is not a permutation.");
-        }
+        Permutations.check(permutationToArray(perm));
     }
 }
@@ -18,6 +18,7 @@
 
 package cz.muni.fi.Numbermat;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
@@ -64,6 +65,11 @@ public final class AlgorithmsSteps {
     
     public static final String NO_SOLUTION = "Neexistuje žádné řešení." + NEWLINE;
     public static final String INFINITE_SOLUTIONS = "Existuje nekonečně mnoho řešení." + NEWLINE;
+    
+    /**
+     * Highest divisor used to simplify congruences in natural solutions.
+     */
+    private static final int SMALL_DIVISOR_BOUND = 13;
 
     /**
      * Euclidean algorithm for finding the greatest common divisor of two integers.
@@ -347,14 +353,10 @@ public final class AlgorithmsSteps {
         result.append(" | ").append(b).append(NEWLINE);
         result.append(numberOfSolutions).append(" = ").append(a);
         result.append("r + ").append(n).append("s").append(NEWLINE);
-        int bezoutCoefficientA; // coeffient r such that ra + sn = gcd(a, n)
-        if (a > n) {
-            bezoutCoefficientA = Algorithms.bezout(a, n).get(1);
-        } else {
-            bezoutCoefficientA = Algorithms.bezout(n, a).get(2);
-        }
+        // coefficient r such that ra + sn = gcd(a, n)
+        final long bezoutCoefficientA = Algorithms.bezoutCoefficient(a, n);
         final int shiftedModulus = n / numberOfSolutions;
-        int x = (bezoutCoefficientA * b) / numberOfSolutions;
+        int x = (int)((bezoutCoefficientA * b / numberOfSolutions) % shiftedModulus);
         x = Algorithms.normalizeIntModulo(x, shiftedModulus);
         result.append("r = ").append(bezoutCoefficientA).append(NEWLINE);
         lineEnd = buildModLineEnd(shiftedModulus);
@@ -386,18 +388,20 @@ public final class AlgorithmsSteps {
         /**
          * Let d be a small divisor of both (normalized) a and b.
          * Try to find this divisor and divide the input congruence by it.
-         * (By 'small' we will mean between 2 and 13, inclusive.)
+         * (By 'small' we will mean between 2 and SMALL_DIVISOR_BOUND, inclusive.)
          */
         int d = 1;
         if (normB != 0)
-            d = linearCongruenceStepsNaturalSearch(Algorithms.commonDivisors(normA, normB));
+            d = linearCongruenceStepsNaturalSearch(
+                    Algorithms.commonDivisorArray(normA, normB, SMALL_DIVISOR_BOUND));
         if ((d > 1) && firstRun) {
             if ((normA != a) || (normB != b))
                 result.append(buildLinearCongruence(normA, 'x', normB, lineEnd));
             a = normA;
             b = normB;
         } else { // Try to find d for original a, b.
-            d = linearCongruenceStepsNaturalSearch(Algorithms.commonDivisors(a, b));
+            d = linearCongruenceStepsNaturalSearch(
+                    Algorithms.commonDivisorArray(a, b, SMALL_DIVISOR_BOUND));
         }
         
         int gcd = Algorithms.gcd(n, d);
@@ -421,7 +425,8 @@ public final class AlgorithmsSteps {
          * Try to find d and then search for k such that nk ≡ -b (mod d).
          * It holds that the congruence ax ≡ b + nk (mod n) is divisible by d.
          */
-        d = linearCongruenceStepsNaturalSearch(Algorithms.divisors(a));
+        d = linearCongruenceStepsNaturalSearch(
+                Algorithms.divisorArray(a, SMALL_DIVISOR_BOUND));
         gcd = Algorithms.gcd(n, d);
         if (gcd > 1)
             d = gcd;
@@ -459,12 +464,14 @@ public final class AlgorithmsSteps {
              * Now if a is still > 1, check a +/- n
              * (according to which of these has a small divisor).
              */
-            if (linearCongruenceStepsNaturalSearch(Algorithms.divisors(a + n)) > 1) {
+            if (linearCongruenceStepsNaturalSearch(
+                    Algorithms.divisorArray(a + n, SMALL_DIVISOR_BOUND)) > 1) {
                 sb = linearCongruenceStepsNatural(a + n, b, n, result);
                 if (linearCongruenceStepsNaturalFinished(sb))
                     return sb;
             }
-            if (linearCongruenceStepsNaturalSearch(Algorithms.divisors(a - n)) > 1) {
+            if (linearCongruenceStepsNaturalSearch(
+                    Algorithms.divisorArray(a - n, SMALL_DIVISOR_BOUND)) > 1) {
                 sb = linearCongruenceStepsNatural(a - n, b, n, result);
                 if (linearCongruenceStepsNaturalFinished(sb))
                     return sb;
@@ -475,20 +482,11 @@ public final class AlgorithmsSteps {
     
     /**
      * Search for highest possible d (see above).
-     * @param divisors List where to search
+     * @param divisors Divisors up to SMALL_DIVISOR_BOUND in ascending order
      * @return d
      */
-    private static int linearCongruenceStepsNaturalSearch(
-            final List<Integer> divisors) {
-        int d = divisors.remove(0); // remove 1 and initialize d
-        for (int i = 0; i < divisors.size(); ++i) {
-            final int di = divisors.get(i);
-            if (di > 13)
-                break;
-            if (di > d)
-                d = di;
-        }
-        return d;
+    private static int linearCongruenceStepsNaturalSearch(final int[] divisors) {
+        return divisors[divisors.length - 1];
     }
     
     private static boolean linearCongruenceStepsNaturalFinished(final StringBuilder sb) {
@@ -596,6 +594,11 @@ public final class AlgorithmsSteps {
             if (partial.equals(new Pair<>(0, 1))) {
                 if ((solution.isEmpty()) && (Utils.lastForCycle(i, count)))
                     return result.append(SEPARATOR).append(INFINITE_SOLUTIONS).toString();
+                if ((!solution.isEmpty()) && (!Utils.lastForCycle(i, count))) {
+                    // congruence 'i' holds for every x, substitute into the next one
+                    bList.set(i + 1, bList.get(i + 1) - (aList.get(i + 1) * solution.getFirst()));
+                    aList.set(i + 1, aList.get(i + 1) * solution.getSecond());
+                }
                 continue;
             }
             final int partialX = partial.getFirst();
@@ -645,18 +648,18 @@ public final class AlgorithmsSteps {
     public static String unitGroupElementOrderSteps(final int element, final int n) {
         final int elementOrder = Algorithms.unitGroupElementOrder(element, n);
         final int groupOrder = Algorithms.eulerPhi(n);
-        final List<Integer> groupOrderDivisors = Algorithms.divisors(groupOrder);
+        final int[] groupOrderDivisors = Algorithms.divisorArray(groupOrder);
         
         StringBuilder result = new StringBuilder(512);
         result.append(AlgorithmsSteps.elementsOfUnitGroupSteps(n));
         result.append("Řád grupy: ").append(buildPhiEquals(n)).append(groupOrder).append(NEWLINE);
-        result.append("Možné řády prvků: ").append(groupOrderDivisors).append(NEWLINE);
+        result.append("Možné řády prvků: ").append(Arrays.toString(groupOrderDivisors)).append(NEWLINE);
         result = new StringBuilder(result.toString().replaceAll("\\[", "\\\\{"));
         result = new StringBuilder(result.toString().replaceAll("\\]", "\\\\}"));
         
         final StringBuilder lineEnd = new StringBuilder("1 ").append(buildModLineEnd(n));
-        for (int i = 0; i < groupOrderDivisors.size(); ++i) {
-            final int currentDivisor = groupOrderDivisors.get(i);
+        for (int i = 0; i < groupOrderDivisors.length; ++i) {
+            final int currentDivisor = groupOrderDivisors[i];
             if (currentDivisor == elementOrder)
                 break;
             result.append(buildPower(element, currentDivisor)).append(NOT_CONG).append(lineEnd);
@@ -887,11 +890,11 @@ public final class AlgorithmsSteps {
                     anyAppendsOnResult = true;
                     result.append(buildLegendreSymbol(restFactor, p));
                 }
-                values.add(Algorithms.legendreSymbol(restFactor, p));
+                values.add(Algorithms.legendreSymbol(restFactor, p, false));
                 if (perfectEi != ei) {
                     anyAppendsOnResult = true;
                     result.append(MULT).append(buildLegendreSymbol(perfectFactor, p));
-                    values.add(Algorithms.legendreSymbol(perfectFactor, p));
+                    values.add(Algorithms.legendreSymbol(perfectFactor, p, false));
                 }
                 if (!Utils.lastForCycle(i, factSize))
                     result.append(MULT);
@@ -975,7 +978,7 @@ public final class AlgorithmsSteps {
             final List<StringBuilder> lineEnds = new ArrayList<>();
             for (int i = 0; i < factSize; ++i) {
                 final int pi = factors.get(i).getFirst();
-                if ((pi != 2) && (Algorithms.legendreSymbol(a, pi) == -1)) {
+                if ((pi != 2) && (Algorithms.legendreSymbol(a, pi, false) == -1)) {
                     result.append(SEPARATOR);
                     result.append(AlgorithmsSteps.factorizeSteps(m)).append(NEWLINE);
                     result.append(AlgorithmsSteps.legendreSymbolSteps(a, pi));
@@ -1253,7 +1256,69 @@ public final class AlgorithmsSteps {
         }
         return true;
     }
-    
+
+    /**
+     * Pohlig-Hellman: the logarithm is found modulo every prime power r^f
+     * dividing the order k of g, from g^(k/r^f) and h^(k/r^f).
+     * @param g Integer coprime with m (check is performed in Algorithms class)
+     * @param h Integer
+     * @param m Integer > 1 (check is performed in Algorithms class)
+     * @return Steps of solving g^x ≡ h (mod m)
+     */
+    public static String discreteLogSteps(int g, int h, final int m) {
+        final StringBuilder lineEnd = buildModLineEnd(m);
+        final StringBuilder result = new StringBuilder(256);
+        if (normalizeIntModuloChanges(g, h, m)) {
+            result.append(g).append("^x").append(CONG).append(h).append(lineEnd);
+            g = Algorithms.normalizeIntModulo(g, m);
+            h = Algorithms.normalizeIntModulo(h, m);
+        }
+        result.append(g).append("^x").append(CONG).append(h).append(lineEnd);
+        if (!Algorithms.isCoprime(h, m)) {
+            result.append(buildGCDEquals(h, m)).append(Algorithms.gcd(h, m)).append(NEWLINE);
+            return result.append(NO_SOLUTION).toString();
+        }
+
+        final int order = Algorithms.unitGroupElementOrder(g, m);
+        result.append("Řád prvku [").append(g).append("] je ");
+        result.append(order).append(".").append(NEWLINE);
+        if (order > 1)
+            result.append(factorizeSteps(order)).append(NEWLINE);
+        result.append(SEPARATOR);
+
+        // x ≡ state[0] (mod state[1]), merged from the prime power components
+        final long[] state = new long[] {0, 1};
+        final List<Pair<Integer, Integer>> factors = Algorithms.factorize(order);
+        for (int i = 0; (order > 1) && (i < factors.size()); ++i) {
+            final int r = factors.get(i).getFirst();
+            int rf = 1;
+            for (int j = 0; j < factors.get(i).getSecond(); ++j)
+                rf *= r;
+            final int gr = Algorithms.modPow(g, order / rf, m);
+            final int hr = Algorithms.modPow(h, order / rf, m);
+            if (rf < order) {
+                result.append(buildModPowResult(gr, buildModPowLineStart(g, order / rf), lineEnd));
+                result.append(buildModPowResult(hr, buildModPowLineStart(h, order / rf), lineEnd));
+                result.append(gr).append("^x").append(CONG).append(hr).append(lineEnd);
+            }
+            final long xr = DiscreteLogarithm.pohligHellman(gr, hr, m, rf, new long[] {r});
+            if (xr < 0)
+                return result.append(NO_SOLUTION).toString();
+            result.append(buildLinearCongruence(1, 'x', (int)xr, buildModLineEnd(rf)));
+            ChineseRemainder.merge(state, xr, rf); // coprime moduli, product is the order
+            if (rf < order)
+                result.append(SEPARATOR);
+        }
+
+        // h may lie outside the subgroup generated by g
+        final int x = (int)state[0];
+        if (Algorithms.modPow(g, x, m) != h)
+            return result.append(NO_SOLUTION).toString();
+        if ((order > 1) && (factors.size() == 1))
+            return result.toString(); // the only component is the result
+        return result.append(buildLinearCongruence(1, 'x', x, buildModLineEnd(order))).toString();
+    }
+
     /**
      * @param inputPerm Permutation (a subgroup of Sn for n >= 1) up to 99 elements
      * @return Representation of a permutation as a matrix
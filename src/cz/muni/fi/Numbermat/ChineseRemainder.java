@@ -0,0 +1,392 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Chinese remainder theorem for moduli which need not be coprime,
+ * engine of linearCongruenceSystem().
+ * Every congruence a x ≡ b (mod n) is reduced to x ≡ r (mod n / gcd(a, n)),
+ * two congruences x ≡ r1 (mod m1), x ≡ r2 (mod m2) are consistent iff
+ * gcd(m1, m2) | r2 - r1 and then merge into one modulo lcm(m1, m2).
+ * Merging runs in long arithmetic and continues in BigInteger
+ * only once the modulus no longer fits. Systems of thousands of congruences
+ * are split into leaves merged this way and the leaves are combined
+ * by the fast CRT over a product tree (balanced operand sizes keep
+ * the BigInteger work near-linear), independent subtrees run on the WorkerPool.
+ * The fast CRT needs pairwise coprime moduli, otherwise the moduli are first
+ * split into prime powers, keeping one congruence per prime.
+ * See Modern Computer Algebra (von zur Gathen, Gerhard), sec. 10.3 for details.
+ *
+ * @author agent <agent(at)local>
+ */
+final class ChineseRemainder {
+
+    private ChineseRemainder() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Results of merge().
+     */
+    static final int MERGED = 0;
+    static final int INCONSISTENT = 1;
+    static final int OVERFLOW = 2;
+
+    /**
+     * Subtrees of at most this many congruences are merged sequentially.
+     */
+    static final int LEAF_SIZE = 64;
+
+    /**
+     * @param a Array of coefficients
+     * @param b Array of right-hand sides
+     * @param n Array of positive moduli
+     * @return [s, m] such that x solves the system a_i x ≡ b_i (mod n_i) iff x ≡ s (mod m),
+     * OR empty array if no solutions exist ([0, 1] means every x is a solution)
+     * @throws RuntimeException if 'm' exceeds Long.MAX_VALUE
+     */
+    static long[] solve(final long[] a, final long[] b, final long[] n) {
+        lengthCheck(a, b, n);
+        final long[] state = new long[] {0, 1};
+        final long[] congruence = new long[2];
+        for (int i = 0; i < n.length; ++i) {
+            if (!reduce(a[i], b[i], n[i], congruence))
+                return new long[0];
+            final int merged = merge(state, congruence[0], congruence[1]);
+            if (merged == INCONSISTENT)
+                return new long[0];
+            if (merged == OVERFLOW)
+                throw new RuntimeException("Overflow occured");
+        }
+        return state;
+    }
+
+    /**
+     * Same as solve() without the limit on the modulus.
+     * Large systems are merged as a product tree, subtrees in parallel.
+     * @return [s, m] OR empty array if no solutions exist
+     */
+    static BigInteger[] solveBig(final long[] a, final long[] b, final long[] n) {
+        lengthCheck(a, b, n);
+        final long[] residues = new long[n.length];
+        final long[] moduli = new long[n.length];
+        final long[] congruence = new long[2];
+        for (int i = 0; i < n.length; ++i) {
+            if (!reduce(a[i], b[i], n[i], congruence))
+                return new BigInteger[0];
+            residues[i] = congruence[0];
+            moduli[i] = congruence[1];
+        }
+        final BigInteger[] result = productTree(residues, moduli);
+        if (result != null)
+            return result;
+        // Some moduli are not coprime, make them so by splitting into prime powers
+        final long[][] coprime = splitIntoPrimePowers(residues, moduli);
+        if (coprime == null)
+            return new BigInteger[0];
+        return productTree(coprime[0], coprime[1]);
+    }
+
+    /**
+     * @return [s, m] OR empty array if some leaf has no solutions
+     * OR null if the moduli of the leaves are not pairwise coprime
+     */
+    private static BigInteger[] productTree(final long[] residues, final long[] moduli) {
+        if (moduli.length <= LEAF_SIZE)
+            return mergeRange(residues, moduli, 0, moduli.length);
+        final Node root = WorkerPool.POOL.invoke(new ProductTask(residues, moduli, 0, moduli.length));
+        if (root.modulus == null)
+            return new BigInteger[0];
+        final BigInteger sum = WorkerPool.POOL.invoke(new CombineTask(root, root.modulus));
+        return (sum == null) ? null : new BigInteger[] {sum.mod(root.modulus), root.modulus};
+    }
+
+    /**
+     * Replaces every x ≡ r (mod m) by congruences modulo the prime powers of 'm'
+     * and keeps only the one with the highest power of each prime,
+     * the others must agree with it.
+     * @return [residues, moduli] with pairwise coprime moduli
+     * OR null if the congruences are inconsistent
+     */
+    private static long[][] splitIntoPrimePowers(final long[] residues, final long[] moduli) {
+        final Map<Long, long[]> byPrime = new HashMap<>(); // p -> [r, p^e]
+        for (int i = 0; i < moduli.length; ++i) {
+            if (moduli[i] == 1)
+                continue;
+            final long[] factors = Factorizer.primeFactors(moduli[i]);
+            for (int j = 0, k = 0; j < factors.length; j = k) {
+                long q = 1;
+                while ((k < factors.length) && (factors[k] == factors[j])) {
+                    q *= factors[k];
+                    ++k;
+                }
+                final long r = residues[i] % q;
+                final long[] known = byPrime.get(factors[j]);
+                if (known == null) {
+                    byPrime.put(factors[j], new long[] {r, q});
+                } else if (known[1] >= q) {
+                    if (known[0] % q != r)
+                        return null;
+                } else {
+                    if (r % known[1] != known[0])
+                        return null;
+                    known[0] = r;
+                    known[1] = q;
+                }
+            }
+        }
+        final long[][] result = new long[2][byPrime.size()];
+        int size = 0;
+        for (final long[] congruence : byPrime.values()) {
+            result[0][size] = congruence[0];
+            result[1][size] = congruence[1];
+            ++size;
+        }
+        return result;
+    }
+
+    /**
+     * Node of the product tree. A leaf holds x ≡ residue (mod modulus) merged
+     * from at most LEAF_SIZE congruences, an inner node the product of its leaves.
+     * The modulus is null if some leaf has no solutions.
+     */
+    private static final class Node {
+
+        private final Node left;
+        private final Node right;
+        private final BigInteger residue;
+        private final BigInteger modulus;
+
+        Node(final BigInteger residue, final BigInteger modulus) {
+            this.left = null;
+            this.right = null;
+            this.residue = residue;
+            this.modulus = modulus;
+        }
+
+        Node(final Node left, final Node right) {
+            this.left = left;
+            this.right = right;
+            this.residue = null;
+            this.modulus = ((left.modulus == null) || (right.modulus == null))
+                    ? null : left.modulus.multiply(right.modulus);
+        }
+    }
+
+    /**
+     * Builds the product tree of congruences [from, to).
+     */
+    private static final class ProductTask extends RecursiveTask<Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] residues;
+        private final long[] moduli;
+        private final int from;
+        private final int to;
+
+        ProductTask(final long[] residues, final long[] moduli, final int from, final int to) {
+            this.residues = residues;
+            this.moduli = moduli;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from <= LEAF_SIZE) {
+                final BigInteger[] merged = mergeRange(residues, moduli, from, to);
+                return (merged.length == 0) ? new Node((BigInteger)null, null) : new Node(merged[0], merged[1]);
+            }
+            final int middle = (from + to) >>> 1;
+            final ProductTask left = new ProductTask(residues, moduli, from, middle);
+            left.fork();
+            final Node right = new ProductTask(residues, moduli, middle, to).compute();
+            return new Node(left.join(), right);
+        }
+    }
+
+    /**
+     * Fast CRT for pairwise coprime moduli of the leaves. With M the product
+     * of all moduli, x = sum of r_i * c_i * M/m_i where c_i = (M/m_i)^(-1) mod m_i.
+     * The remainder tree yields M mod m_i^2 = m_i * ((M/m_i) mod m_i),
+     * the sum is accumulated bottom-up as v = vLeft * mRight + vRight * mLeft.
+     * Only leaves need an inverse, everything else is multiplication and division.
+     */
+    private static final class CombineTask extends RecursiveTask<BigInteger> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final BigInteger remainder; // M mod node.modulus^2
+
+        CombineTask(final Node node, final BigInteger remainder) {
+            this.node = node;
+            this.remainder = remainder;
+        }
+
+        /**
+         * @return Sum over the leaves of the subtree OR null if some modulus
+         * is not coprime with the others
+         */
+        @Override
+        protected BigInteger compute() {
+            if (node.left == null) {
+                final BigInteger cofactor = remainder.divide(node.modulus);
+                if (!cofactor.gcd(node.modulus).equals(BigInteger.ONE))
+                    return null;
+                return node.residue.multiply(cofactor.modInverse(node.modulus))
+                        .mod(node.modulus);
+            }
+            final CombineTask left = new CombineTask(node.left,
+                    remainder.mod(node.left.modulus.multiply(node.left.modulus)));
+            left.fork();
+            final BigInteger right = new CombineTask(node.right,
+                    remainder.mod(node.right.modulus.multiply(node.right.modulus))).compute();
+            final BigInteger leftSum = left.join();
+            if ((leftSum == null) || (right == null))
+                return null;
+            return leftSum.multiply(node.right.modulus).add(right.multiply(node.left.modulus));
+        }
+    }
+
+    /**
+     * Sequential merge of congruences x ≡ residues[i] (mod moduli[i]) for i in [from, to),
+     * in long arithmetic while the modulus fits, then in BigInteger.
+     * @return [s, m] OR empty array if there is no common solution
+     */
+    private static BigInteger[] mergeRange(final long[] residues, final long[] moduli,
+            final int from, final int to) {
+        final long[] state = new long[] {0, 1};
+        int i = from;
+        for (; i < to; ++i) {
+            final int merged = merge(state, residues[i], moduli[i]);
+            if (merged == INCONSISTENT)
+                return new BigInteger[0];
+            if (merged == OVERFLOW)
+                break;
+        }
+        BigInteger[] result = new BigInteger[] {BigInteger.valueOf(state[0]),
+                BigInteger.valueOf(state[1])};
+        for (; i < to; ++i) {
+            result = merge(result[0], result[1],
+                    BigInteger.valueOf(residues[i]), BigInteger.valueOf(moduli[i]));
+            if (result.length == 0)
+                return result;
+        }
+        return result;
+    }
+
+    /**
+     * Reduces a x ≡ b (mod n) to x ≡ r (mod m).
+     * @param a Integer
+     * @param b Integer
+     * @param n Positive integer
+     * @param result Output array, receives [r, m] with 0 <= r < m
+     * @return false if the congruence has no solutions
+     */
+    static boolean reduce(long a, long b, final long n, final long[] result) {
+        Algorithms.positiveCheck(n);
+        a %= n;
+        if (a < 0)
+            a += n;
+        b %= n;
+        if (b < 0)
+            b += n;
+        final long g = Algorithms.gcd(a, n); // gcd(0, n) = n
+        if (b % g != 0)
+            return false;
+        final long m = n / g;
+        long r = 0;
+        if (m > 1) {
+            long inverse = Algorithms.bezoutCoefficient(a / g, m) % m;
+            if (inverse < 0)
+                inverse += m;
+            r = Algorithms.mulMod(inverse, b / g, m);
+        }
+        result[0] = r;
+        result[1] = m;
+        return true;
+    }
+
+    /**
+     * Merges x ≡ state[0] (mod state[1]) with x ≡ r (mod m), in place.
+     * @param state [x1, m1] with 0 <= x1 < m1
+     * @param r Integer in range [0, m)
+     * @param m Positive integer
+     * @return MERGED, INCONSISTENT (no common solution) or
+     * OVERFLOW (lcm exceeds Long.MAX_VALUE, 'state' is left unchanged)
+     */
+    static int merge(final long[] state, final long r, final long m) {
+        final long x1 = state[0];
+        final long m1 = state[1];
+        final long g = Algorithms.gcd(m1, m);
+        final long difference = r - x1;
+        if (difference % g != 0)
+            return INCONSISTENT;
+        final long m1Reduced = m1 / g;
+        final long mReduced = m / g;
+        if (m1Reduced > Long.MAX_VALUE / m)
+            return OVERFLOW;
+
+        // x = x1 + m1 * t where (m1/g) t ≡ (r - x1)/g (mod m/g)
+        long t = 0;
+        if (mReduced > 1) {
+            long shift = (difference / g) % mReduced;
+            if (shift < 0)
+                shift += mReduced;
+            long inverse = Algorithms.bezoutCoefficient(m1Reduced % mReduced, mReduced) % mReduced;
+            if (inverse < 0)
+                inverse += mReduced;
+            t = Algorithms.mulMod(shift, inverse, mReduced);
+        }
+        state[0] = x1 + m1 * t;
+        state[1] = m1Reduced * m;
+        return MERGED;
+    }
+
+    /**
+     * Merges x ≡ x1 (mod m1) with x ≡ r (mod m).
+     * @return [x, lcm(m1, m)] OR empty array if there is no common solution
+     */
+    static BigInteger[] merge(final BigInteger x1, final BigInteger m1,
+            final BigInteger r, final BigInteger m) {
+        final BigInteger g = m1.gcd(m);
+        final BigInteger[] division = r.subtract(x1).divideAndRemainder(g);
+        if (division[1].signum() != 0)
+            return new BigInteger[0];
+        final BigInteger mReduced = m.divide(g);
+        BigInteger t = BigInteger.ZERO;
+        if (!mReduced.equals(BigInteger.ONE))
+            t = division[0].multiply(m1.divide(g).modInverse(mReduced)).mod(mReduced);
+        return new BigInteger[] {x1.add(m1.multiply(t)), m1.multiply(mReduced)};
+    }
+
+    private static void lengthCheck(final long[] a, final long[] b, final long[] n) {
+        if ((a.length != n.length) || (b.length != n.length))
+            throw new IllegalArgumentException("Array lengths differ: " + a.length
+                    + ", " + b.length + ", " + n.length);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * Discrete logarithms modulo m, engine of discreteLog().
+ * The order of g is factorized and the logarithm is found in every subgroup
+ * of prime power order (Pohlig-Hellman), digit by digit in subgroups of prime
+ * order by the baby-step giant-step method. The baby steps are stored in an
+ * open-addressing table of primitive arrays, so a subgroup of order r costs
+ * O(sqrt(r)) multiplications and no boxing.
+ * See Handbook of Applied Cryptography, sec. 3.6, page 103 for details.
+ *
+ * @author agent <agent(at)local>
+ */
+final class DiscreteLogarithm {
+
+    private DiscreteLogarithm() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Subgroups of prime order up to this bound are searched by brute force.
+     */
+    private static final long BRUTE_FORCE_ORDER = 64;
+
+    /**
+     * Maximal number of baby steps, larger subgroups take more giant steps
+     * instead of more memory.
+     */
+    private static final int BABY_STEPS_LIMIT = 1 << 20;
+
+    /**
+     * @param g Long integer coprime with 'm'
+     * @param h Long integer
+     * @param m Long integer > 1
+     * @return Smallest x >= 0 such that g^x ≡ h (mod m) OR -1 if no such x exists
+     */
+    static long log(long g, long h, final long m) {
+        Algorithms.notLessThanCheck(m, 2L);
+        g %= m;
+        if (g < 0)
+            g += m;
+        h %= m;
+        if (h < 0)
+            h += m;
+        if (Algorithms.gcd(g, m) != 1)
+            throw new IllegalArgumentException(g + ", " + m + " are not coprime.");
+        if (h == 1)
+            return 0;
+        if (Algorithms.gcd(h, m) != 1)
+            return -1;
+
+        final long order = LongAlgorithms.unitGroupElementOrder(g, m);
+        final long x = pohligHellman(g, h, m, order, distinctFactors(order));
+        if ((x < 0) || (Algorithms.modPow(g, x, m) != h))
+            return -1;
+        return x;
+    }
+
+    /**
+     * @param n Positive long integer
+     * @return Distinct prime factors of 'n' in ascending order
+     */
+    static long[] distinctFactors(final long n) {
+        if (n == 1)
+            return new long[0];
+        final long[] factors = Factorizer.primeFactors(n);
+        int size = 0;
+        for (int i = 0; i < factors.length; ++i) {
+            if ((size == 0) || (factors[size - 1] != factors[i]))
+                factors[size++] = factors[i];
+        }
+        return Arrays.copyOf(factors, size);
+    }
+
+    /**
+     * Pohlig-Hellman algorithm, logarithms in subgroups of prime order
+     * are found by the baby-step giant-step method.
+     * See Handbook of Applied Cryptography, sec. 3.6.4, page 107 for details.
+     * @param g Generator of a cyclic group modulo 'modulus'
+     * @param h Unit modulo 'modulus'
+     * @param modulus Positive integer
+     * @param order Order of 'g'
+     * @param orderFactors Distinct prime factors of 'order'
+     * @return x in range [0, order) such that g^x ≡ h (mod modulus)
+     * OR -1 if 'h' is not in the subgroup of some prime order
+     */
+    static long pohligHellman(final long g, final long h, final long modulus,
+            final long order, final long[] orderFactors) {
+        long x = 0;
+        long xModulus = 1;
+        for (int i = 0; i < orderFactors.length; ++i) {
+            final long r = orderFactors[i];
+            int f = 0;
+            long rf = 1;
+            while (order % (rf * r) == 0) {
+                rf *= r;
+                ++f;
+            }
+            // Logarithm in the subgroup of order r^f, digit by digit in base r
+            final long gr = Algorithms.modPow(g, order / rf, modulus);
+            final long hr = Algorithms.modPow(h, order / rf, modulus);
+            final long gamma = Algorithms.modPow(gr, rf / r, modulus); // order r
+            long xr = 0;
+            long digitWeight = 1;
+            for (int k = 0; k < f; ++k) {
+                final long shifted = Algorithms.mulMod(hr,
+                        Algorithms.modPow(gr, rf - xr, modulus), modulus);
+                final long target = Algorithms.modPow(shifted, rf / r / digitWeight, modulus);
+                final long digit = babyStepGiantStep(gamma, target, modulus, r);
+                if (digit < 0)
+                    return -1;
+                xr += digit * digitWeight;
+                digitWeight *= r;
+            }
+
+            // x ≡ xr (mod r^f), combined with the previous ones
+            final long t = Algorithms.mulMod((xr - x % rf + rf) % rf,
+                    ModularSquareRoots.inverse(xModulus % rf, rf), rf);
+            x += xModulus * t;
+            xModulus *= rf;
+        }
+        return x;
+    }
+
+    /**
+     * @param g Element of prime order 'r'
+     * @param h Unit modulo 'modulus'
+     * @param modulus Positive integer
+     * @param r Prime
+     * @return x in range [0, r) such that g^x ≡ h (mod modulus)
+     * OR -1 if 'h' is not a power of 'g'
+     */
+    private static long babyStepGiantStep(final long g, final long h,
+            final long modulus, final long r) {
+        if (r <= BRUTE_FORCE_ORDER) {
+            long power = 1;
+            for (long x = 0; x < r; ++x) {
+                if (power == h)
+                    return x;
+                power = Algorithms.mulMod(power, g, modulus);
+            }
+            return -1;
+        }
+
+        final int babySteps = (int)Math.min(BABY_STEPS_LIMIT, (long)Math.ceil(Math.sqrt((double)r)));
+        final BabySteps table = new BabySteps(babySteps);
+        long power = 1;
+        for (int j = 0; j < babySteps; ++j) {
+            table.putIfAbsent(power, j);
+            power = Algorithms.mulMod(power, g, modulus);
+        }
+        final long giantSteps = (r + babySteps - 1) / babySteps;
+        final long giantStep = Algorithms.modPow(g, r - babySteps % r, modulus); // g^(-babySteps)
+        long gamma = h;
+        for (long i = 0; i < giantSteps; ++i) {
+            final int j = table.get(gamma);
+            if (j >= 0)
+                return (i * babySteps + j) % r;
+            gamma = Algorithms.mulMod(gamma, giantStep, modulus);
+        }
+        return -1;
+    }
+
+    /**
+     * Hash table (unit -> exponent) with linear probing. Units are never 0,
+     * so 0 marks an empty slot.
+     */
+    private static final class BabySteps {
+
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+        private final int shift;
+
+        BabySteps(final int expectedSize) {
+            final int capacity = Integer.highestOneBit(Math.max(expectedSize, 1)) << 2;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+            shift = Long.numberOfLeadingZeros(capacity) + 1;
+        }
+
+        void putIfAbsent(final long key, final int value) {
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key)
+                    return;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * @param key Unit
+         * @return Stored exponent OR -1 if the key is absent
+         */
+        int get(final long key) {
+            for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key)
+                    return values[slot];
+            }
+            return -1;
+        }
+
+        /**
+         * Fibonacci hashing, the top bits of the product are well mixed.
+         */
+        private int slot(final long key) {
+            return (int)((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * Integer factorization engine used by Algorithms.factorize().
+ * Numbers covered by SmallestPrimeFactors are looked up directly.
+ * Otherwise small prime factors are removed by trial division, the rest
+ * is split by Brent's variant of Pollard's rho method until all parts are prime.
+ * See Handbook of Applied Cryptography, sec. 3.2.2, page 91 for details.
+ *
+ * @author agent <agent(at)local>
+ */
+final class Factorizer {
+
+    private Factorizer() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Primes up to this limit are found by trial division.
+     */
+    static final int TRIAL_DIVISION_LIMIT = 1 << 10;
+
+    private static final int[] TRIAL_PRIMES;
+
+    static {
+        int count = 0;
+        for (int i = 2; i <= TRIAL_DIVISION_LIMIT; ++i) {
+            if (PrimeSieve.isPrime(i))
+                ++count;
+        }
+        TRIAL_PRIMES = new int[count];
+        count = 0;
+        for (int i = 2; i <= TRIAL_DIVISION_LIMIT; ++i) {
+            if (PrimeSieve.isPrime(i))
+                TRIAL_PRIMES[count++] = i;
+        }
+    }
+
+    /**
+     * Gcd products are accumulated over this many rho steps.
+     */
+    private static final int BATCH_SIZE = 128;
+
+    /**
+     * Factorizations of numbers above SmallestPrimeFactors.LIMIT.
+     */
+    static final MemoCache<long[]> CACHE = new MemoCache<>("factorize", 4096,
+            new MemoCache.Loader<long[]>() {
+                @Override
+                public long[] load(final long n) {
+                    return factorize(n);
+                }
+            });
+
+    /**
+     * @param n Integer > 1
+     * @return Prime factors of 'n' with multiplicity in ascending order
+     * (a new array, the caller may modify it)
+     */
+    static long[] primeFactors(final long n) {
+        Algorithms.notLessThanCheck(n, 2L);
+        if (n <= SmallestPrimeFactors.LIMIT)
+            return SmallestPrimeFactors.primeFactors((int)n);
+        return CACHE.get(n).clone();
+    }
+
+    private static long[] factorize(long n) {
+        final long[] factors = new long[Long.SIZE];
+        int count = 0;
+        for (int i = 0; i < TRIAL_PRIMES.length; ++i) {
+            final int p = TRIAL_PRIMES[i];
+            if ((long)p * p > n)
+                break;
+            while (n % p == 0) {
+                factors[count++] = p;
+                n /= p;
+            }
+        }
+        if (n > 1)
+            count = split(n, factors, count);
+        Arrays.sort(factors, 0, count);
+        return Arrays.copyOf(factors, count);
+    }
+
+    /**
+     * Splits 'n' which has no prime factors up to TRIAL_DIVISION_LIMIT.
+     * @return New count of factors stored in 'factors'
+     */
+    private static int split(final long n, final long[] factors, int count) {
+        if ((n <= (long)TRIAL_DIVISION_LIMIT * TRIAL_DIVISION_LIMIT)
+                || (Algorithms.isPrime(n))) {
+            factors[count++] = n;
+            return count;
+        }
+        final long d = brent(n);
+        count = split(d, factors, count);
+        return split(n / d, factors, count);
+    }
+
+    /**
+     * Brent's cycle finding applied to x -> x^2 + c (mod n).
+     * Moduli above 2^31 are handled in Montgomery arithmetic (the map stays
+     * pseudo-random and gcds with n are not affected by the factor R).
+     * @param n Odd composite integer
+     * @return Non-trivial divisor of 'n'
+     */
+    private static long brent(final long n) {
+        final Montgomery mont = (n > Integer.MAX_VALUE) ? new Montgomery(n) : null;
+        for (long c = 1; ; ++c) {
+            long y = 2;
+            long x = y;
+            long ys = y;
+            long q = 1;
+            long g = 1;
+            for (int r = 1; g == 1; r *= 2) {
+                x = y;
+                for (int i = 0; i < r; ++i)
+                    y = next(y, c, n, mont);
+                for (int k = 0; (k < r) && (g == 1); k += BATCH_SIZE) {
+                    ys = y;
+                    final int steps = Math.min(BATCH_SIZE, r - k);
+                    for (int i = 0; i < steps; ++i) {
+                        y = next(y, c, n, mont);
+                        q = multiply(q, Math.abs(x - y), n, mont);
+                    }
+                    g = Algorithms.gcd(q, n);
+                }
+            }
+            if (g == n) { // the batch overshot, redo it step by step
+                do {
+                    ys = next(ys, c, n, mont);
+                    g = Algorithms.gcd(x - ys, n);
+                } while (g == 1);
+            }
+            if (g != n)
+                return g;
+        }
+    }
+
+    private static long next(final long y, final long c, final long n,
+            final Montgomery mont) {
+        final long square = multiply(y, y, n, mont);
+        return (square >= n - c) ? square - (n - c) : square + c;
+    }
+
+    private static long multiply(final long a, final long b, final long n,
+            final Montgomery mont) {
+        return (mont == null) ? a * b % n : mont.multiply(a, b);
+    }
+}
@@ -0,0 +1,400 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 64-bit counterparts of the number theory algorithms in class Algorithms.
+ * Methods have the same names and semantics, arguments and results are long.
+ * Modular products never overflow (see Algorithms.mulMod()), other products
+ * are checked and throw an exception instead of wrapping around.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class LongAlgorithms {
+
+    private LongAlgorithms() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * @param a Long integer
+     * @param b Long integer
+     * @return gcd(a, b)
+     */
+    public static long gcd(final long a, final long b) {
+        return Algorithms.gcd(a, b);
+    }
+
+    /**
+     * Least common multiple of two positive integers.
+     * @param a Positive long integer
+     * @param b Positive long integer
+     * @return lcm(a, b)
+     * @throws RuntimeException if the result exceeds Long.MAX_VALUE
+     */
+    public static long lcm(final long a, final long b) {
+        Algorithms.positiveCheck(a);
+        Algorithms.positiveCheck(b);
+        return multiply(a / gcd(a, b), b);
+    }
+
+    /**
+     * Extended Euclidean algorithm for solving Bezout's identity.
+     * @param a Non-negative long integer, a >= b
+     * @param b Non-negative long integer
+     * @return List [d, x, y] where d = gcd(a, b) and x, y such that ax + by = d
+     */
+    public static List<Long> bezout(final long a, final long b) {
+        Algorithms.notNegativeCheck(a);
+        Algorithms.notNegativeCheck(b);
+        Algorithms.notLessThanCheck(a, b);
+        final long[] result = new long[3];
+        Algorithms.extendedGcd(a, b, result);
+        return new ArrayList<>(Arrays.asList(result[0], result[1], result[2]));
+    }
+
+    /**
+     * Modular exponentiation.
+     * @param base Long integer
+     * @param exp Non-negative long integer
+     * @param mod Positive long integer
+     * @return (base^exp) mod (mod)
+     */
+    public static long modPow(final long base, final long exp, final long mod) {
+        return Algorithms.modPow(base, exp, mod);
+    }
+
+    /**
+     * Prime factorization.
+     * @param n Non-negative long integer
+     * @return List of pairs (factor, exponent)
+     */
+    public static List<Pair<Long, Integer>> factorize(final long n) {
+        return Algorithms.factorize(n);
+    }
+
+    /**
+     * Euler's totient (phi) function.
+     * @param n Positive long integer
+     * @return Value of Euler's totient function for n
+     */
+    public static long eulerPhi(final long n) {
+        Algorithms.positiveCheck(n);
+        if (n <= SmallestPrimeFactors.LIMIT)
+            return SmallestPrimeFactors.eulerPhi((int)n);
+        return Algorithms.PHI_CACHE.get(n);
+    }
+
+    /**
+     * Carmichael's function, the exponent of group Zn×.
+     * @param n Positive long integer
+     * @return Smallest positive integer k such that a^k ≡ 1 (mod n) for all a in Zn×
+     */
+    public static long carmichaelLambda(final long n) {
+        Algorithms.positiveCheck(n);
+        final long[] factors = (n == 1) ? new long[0] : Factorizer.primeFactors(n);
+        long lambda = 1;
+        for (int i = 0, j = 0; i < factors.length; i = j) {
+            final long p = factors[i];
+            long primePower = 1;
+            while ((j < factors.length) && (factors[j] == p)) {
+                primePower *= p;
+                ++j;
+            }
+            // lambda(2^e) = 2^(e-2) for e > 2, otherwise lambda(p^e) = phi(p^e)
+            long lambdaPrimePower = primePower / p * (p - 1);
+            if ((p == 2) && (primePower > 4))
+                lambdaPrimePower /= 2;
+            lambda = lambda / gcd(lambda, lambdaPrimePower) * lambdaPrimePower;
+        }
+        return lambda;
+    }
+
+    /**
+     * Solves the linear congruence of form ax ≡ b (mod n).
+     * @param a Long integer
+     * @param b Long integer
+     * @param n Positive long integer
+     * @return Pair (solution, modulus) OR empty pair if no solutions exist
+     * OR pair (0, 1) if infinite solutions exist.
+     */
+    public static Pair<Long, Long> linearCongruence(final long a, final long b, final long n) {
+        final long[] result = new long[2];
+        if (!ChineseRemainder.reduce(a, b, n, result))
+            return new Pair<>();
+        return new Pair<>(result[0], result[1]);
+    }
+
+    /**
+     * Solving a system of congruences of type a_i x ≡ b_i (mod n_i).
+     * @param a Array of long integers
+     * @param b Array of long integers
+     * @param n Array of positive long integers
+     * @return Pair (solution, modulus) OR empty pair if no solutions exist
+     * OR pair (0, 1) if infinite solutions exist.
+     * @throws RuntimeException if the modulus exceeds Long.MAX_VALUE
+     */
+    public static Pair<Long, Long> linearCongruenceSystem(final long[] a,
+            final long[] b, final long[] n) {
+        final long[] result = ChineseRemainder.solve(a, b, n);
+        if (result.length == 0)
+            return new Pair<>();
+        return new Pair<>(result[0], result[1]);
+    }
+
+    /**
+     * @param element Positive long integer
+     * @param n Long integer > 1
+     * @return Order of element 'element' in group Zn×
+     */
+    public static long unitGroupElementOrder(final long element, final long n) {
+        Algorithms.positiveCheck(element);
+        Algorithms.notLessThanCheck(n, 2L);
+        if (element == 1)
+            return 1;
+        if ((element >= n) || (gcd(element, n) != 1))
+            throw new IllegalArgumentException(element + " is not an element of Z" + n + "×");
+
+        // Strip prime factors from the group exponent while the power stays 1
+        long order = carmichaelLambda(n);
+        final long[] orderFactors = Factorizer.primeFactors(order);
+        for (int i = 0; i < orderFactors.length; ++i) {
+            final long p = orderFactors[i];
+            if (modPow(element, order / p, n) == 1)
+                order /= p;
+        }
+        return order;
+    }
+
+    /**
+     * @param m Long integer > 1
+     * @return Do primitive roots mod m exist?
+     */
+    public static boolean primitiveRootsExist(final long m) {
+        return PrimitiveRoots.exist(m);
+    }
+
+    /**
+     * @param m Long integer > 1 such that primitive roots mod m exist
+     * @return Smallest primitive root mod m
+     */
+    public static long primitiveRoot(final long m) {
+        return PrimitiveRoots.of(m).generator;
+    }
+
+    /**
+     * Discrete logarithm (index) of h to the base g.
+     * @param g Long integer coprime with m
+     * @param h Long integer
+     * @param m Long integer > 1
+     * @return Smallest x >= 0 such that g^x ≡ h (mod m) OR -1 if no such x exists
+     */
+    public static long discreteLog(final long g, final long h, final long m) {
+        return DiscreteLogarithm.log(g, h, m);
+    }
+
+    /**
+     * Prime-counting function, sub-linear beyond the prime table.
+     * @param x Long integer, at most 10^12
+     * @return Number of primes <= x
+     */
+    public static long primeCount(final long x) {
+        return PrimeCounting.count(x);
+    }
+
+    /**
+     * @param lo Non-negative long integer
+     * @param hi Long integer >= lo, at most 10^12
+     * @return Number of primes in range [lo, hi]
+     */
+    public static long primeCount(final long lo, final long hi) {
+        return PrimeCounting.count(lo, hi);
+    }
+
+    /**
+     * @param k Positive long integer such that the k-th prime is at most 10^12
+     * @return k-th prime (the first one is 2)
+     */
+    public static long nthPrime(final long k) {
+        return PrimeCounting.nthPrime(k);
+    }
+
+    /**
+     * Solves the quadratic congruence of form x^2 ≡ a (mod m).
+     * @param a Long integer
+     * @param m Positive long integer
+     * @return List of solutions in ascending order ending with modulus,
+     * e.g. [x1, x2, ..., xn, m]
+     */
+    public static List<Long> quadraticCongruenceSimple(final long a, final long m) {
+        return Algorithms.quadraticCongruenceSimple(a, m);
+    }
+
+    /**
+     * Solves the quadratic congruence of form ax^2 + bx + c ≡ 0 (mod m)
+     * by completing the square: t = 2ax + b, t^2 ≡ b^2 - 4ac (mod 4m).
+     * @param a Long integer
+     * @param b Long integer
+     * @param c Long integer
+     * @param m Positive long integer coprime with a, 4m must not exceed Long.MAX_VALUE
+     * @return List of solutions in ascending order ending with modulus,
+     * e.g. [x1, x2, ..., xn, m]
+     */
+    public static List<Long> quadraticCongruenceGeneral(long a, long b, long c, final long m) {
+        Algorithms.positiveCheck(m);
+        a = normalize(a, m);
+        if (gcd(a, m) != 1)
+            throw new IllegalArgumentException(a + ", " + m + " are not coprime.");
+        if (m == 1)
+            return new ArrayList<>(Arrays.asList(0L, 1L));
+
+        final long fourM = multiply(4, m);
+        b = normalize(b, fourM);
+        c = normalize(c, fourM);
+        final long discriminant = normalize(Algorithms.mulMod(b, b, fourM)
+                - Algorithms.mulMod(4, Algorithms.mulMod(a, c, fourM), fourM), fourM);
+        final long[] roots = ModularSquareRoots.solve(discriminant, fourM);
+        if (roots.length == 0)
+            return new ArrayList<>();
+
+        // Every t modulo 2m gives x ≡ (t - b)/2 * a^(-1) (mod m)
+        final long period = roots[roots.length - 1];
+        final long twoM = 2 * m;
+        final long limit = (twoM % period == 0) ? twoM : fourM;
+        final long aInverse = ModularSquareRoots.inverse(a, m);
+        final List<Long> result = new ArrayList<>();
+        for (int i = 0; i < roots.length - 1; ++i) {
+            for (long t = roots[i]; t < limit; t += period) {
+                final long shifted = normalize(t % twoM - b, twoM);
+                if (shifted % 2 != 0)
+                    throw new RuntimeException("Computational error.");
+                result.add(Algorithms.mulMod(shifted / 2, aInverse, m));
+            }
+        }
+        return sortedWithModulus(result, m);
+    }
+
+    /**
+     * Solves the binomial congruence of form x^n ≡ a (mod m).
+     * @param n Positive long integer
+     * @param a Long integer
+     * @param m Positive long integer
+     * @return List of solutions modulo m in ascending order ending with modulus,
+     * e.g. [x1, x2, ..., xn, m]
+     */
+    public static List<Long> binomialCongruence(final long n, final long a, final long m) {
+        Algorithms.positiveCheck(n);
+        Algorithms.positiveCheck(m);
+        if (m == 1)
+            return new ArrayList<>(Arrays.asList(0L, 1L));
+        if (n == 1)
+            return new ArrayList<>(Arrays.asList(normalize(a, m), m));
+        if (n == 2)
+            return quadraticCongruenceSimple(a, m);
+
+        final long[] solution = binomialCongruenceRuleOut(ModularNthRoots.solve(n, a, m), m);
+        final List<Long> result = new ArrayList<>(solution.length);
+        for (int i = 0; i < solution.length; ++i)
+            result.add(solution[i]);
+        return result;
+    }
+
+    /**
+     * Helper method for binomialCongruence().
+     * Rules out equivalent solutions for even modulus.
+     * @param roots Solutions modulo m in ascending order
+     * @param m Positive long integer
+     * @return Solutions in ascending order followed by their modulus (m or m/2),
+     * empty array if there are no solutions
+     */
+    static long[] binomialCongruenceRuleOut(final long[] roots, final long m) {
+        if (roots.length == 0)
+            return roots;
+
+        if (m % 2 == 0) {
+            // Solutions below m/2 are distinct mod m/2, the others may repeat them
+            final long half = m / 2;
+            int lowerCount = 0;
+            while ((lowerCount < roots.length) && (roots[lowerCount] < half))
+                ++lowerCount;
+            final long[] halved = new long[roots.length + 1];
+            System.arraycopy(roots, 0, halved, 0, lowerCount);
+            int size = lowerCount;
+            for (int i = lowerCount; i < roots.length; ++i) {
+                if (Arrays.binarySearch(roots, 0, lowerCount, roots[i] - half) < 0)
+                    halved[size++] = roots[i] - half;
+            }
+            if (size < roots.length) {
+                halved[size++] = half;
+                return Arrays.copyOf(halved, size);
+            }
+        }
+        final long[] result = Arrays.copyOf(roots, roots.length + 1);
+        result[roots.length] = m;
+        return result;
+    }
+
+    /**
+     * @param a Long integer
+     * @param b Long integer
+     * @return a * b
+     * @throws RuntimeException if the product does not fit into long
+     */
+    static long multiply(final long a, final long b) {
+        final long product = a * b;
+        final long absA = Math.abs(a);
+        final long absB = Math.abs(b);
+        if (((absA | absB) >>> 31 != 0)
+                && (((b != 0) && (product / b != a))
+                    || ((a == Long.MIN_VALUE) && (b == -1))))
+            throw new RuntimeException("Overflow occured");
+        return product;
+    }
+
+    /**
+     * @param a Long integer
+     * @param n Positive long integer
+     * @return a mod n in range [0, n)
+     */
+    private static long normalize(long a, final long n) {
+        a %= n;
+        return (a < 0) ? a + n : a;
+    }
+
+    private static List<Long> sortedWithModulus(final List<Long> values, final long m) {
+        if (values.isEmpty())
+            return values;
+        final long[] sorted = new long[values.size()];
+        for (int i = 0; i < sorted.length; ++i)
+            sorted[i] = values.get(i);
+        Arrays.sort(sorted);
+        final List<Long> result = new ArrayList<>(sorted.length + 1);
+        for (int i = 0; i < sorted.length; ++i) {
+            if ((i == 0) || (sorted[i] != sorted[i - 1]))
+                result.add(sorted[i]);
+        }
+        result.add(m);
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe memoization of a function of one long integer, bounded
+ * by the number of entries. The least recently used entry is evicted first.
+ * Values are computed outside the lock, so two threads missing the same key
+ * may both compute it (the results are equal, one of them is kept).
+ * Cached values are shared, owners must never modify them (arrays are
+ * copied before they leave the package).
+ *
+ * @author agent <agent(at)local>
+ * @param <V> Type of cached values
+ */
+public final class MemoCache<V> {
+
+    /**
+     * Function to be memoized.
+     * @param <V> Type of values
+     */
+    interface Loader<V> {
+
+        /**
+         * @param key Long integer
+         * @return Value for the key, never null
+         */
+        V load(long key);
+    }
+
+    private final String name;
+    private final int capacity;
+    private final Loader<V> loader;
+    private final Map<Long, V> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param name Name used by toString()
+     * @param capacity Positive integer, maximal number of entries
+     * @param loader Function to be memoized
+     */
+    MemoCache(final String name, final int capacity, final Loader<V> loader) {
+        Algorithms.positiveCheck(capacity);
+        this.name = name;
+        this.capacity = capacity;
+        this.loader = loader;
+        this.entries = new LinkedHashMap<Long, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, V> eldest) {
+                if (size() <= MemoCache.this.capacity)
+                    return false;
+                ++evictions;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param key Long integer
+     * @return Cached value, computed on the first request
+     */
+    V get(final long key) {
+        synchronized (this) {
+            final V value = entries.get(key);
+            if (value != null) {
+                ++hits;
+                return value;
+            }
+            ++misses;
+        }
+        final V value = loader.load(key);
+        synchronized (this) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return Number of requests answered from the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of requests which computed the value
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of entries removed to keep the size bounded
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Maximal number of cached entries
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     * Not public, the caches are shared by the whole application.
+     */
+    synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + ": " + entries.size() + "/" + capacity + " entries, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+}
@@ -0,0 +1,194 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * All n-th roots modulo m, engine of binomialCongruence().
+ * Roots modulo each prime power are computed separately and combined by the CRT.
+ * Modulo p^e for odd p the unit group is cyclic: with a primitive root g
+ * and the discrete logarithm L of a (Pohlig-Hellman, baby-step giant-step),
+ * the roots are g^k for all k with nk ≡ L (mod phi(p^e)).
+ * Modulo 2^e the roots are lifted bit by bit, non-units are reduced
+ * to units by their p-adic valuation.
+ * See Handbook of Applied Cryptography, sec. 3.6.4, page 107 for details.
+ *
+ * @author agent <agent(at)local>
+ */
+final class ModularNthRoots {
+
+    private ModularNthRoots() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * @param n Positive integer
+     * @param a Integer
+     * @param m Positive integer
+     * @return All solutions of x^n ≡ a (mod m) in range [0, m) in ascending order
+     */
+    static long[] solve(final long n, long a, final long m) {
+        Algorithms.positiveCheck(n);
+        Algorithms.positiveCheck(m);
+        a %= m;
+        if (a < 0)
+            a += m;
+        if (m == 1)
+            return new long[] {0};
+
+        final long[] factors = Factorizer.primeFactors(m);
+        long[] roots = new long[] {0};
+        long period = 1;
+        for (int i = 0, j = 0; i < factors.length; i = j) {
+            final long p = factors[i];
+            int e = 0;
+            long q = 1;
+            while ((j < factors.length) && (factors[j] == p)) {
+                q *= p;
+                ++e;
+                ++j;
+            }
+            final long[] partial = solvePrimePower(n, a % q, p, e, q);
+            if (partial.length == 1) // only the modulus
+                return new long[0];
+            roots = ModularSquareRoots.combine(roots, period, partial);
+            period *= q;
+        }
+        Arrays.sort(roots);
+        return roots;
+    }
+
+    /**
+     * @param n Positive integer
+     * @param a Integer in range [0, q)
+     * @param p Prime
+     * @param e Positive integer
+     * @param q p^e
+     * @return [x1, ..., xk, q] where xi are all solutions of x^n ≡ a (mod q)
+     */
+    private static long[] solvePrimePower(final long n, final long a,
+            final long p, final int e, final long q) {
+        if (a == 0) {
+            // x^n ≡ 0 <=> p^ceil(e/n) | x
+            final long exponent = (n >= e) ? 1 : (e + n - 1) / n;
+            long step = 1;
+            for (long i = 0; i < exponent; ++i)
+                step *= p;
+            final long[] result = new long[(int)(q / step) + 1];
+            for (int i = 0; i < result.length - 1; ++i)
+                result[i] = i * step;
+            result[result.length - 1] = q;
+            return result;
+        }
+
+        // a = p^v * u, then x = p^(v/n) * y where y^n ≡ u (mod p^(e-v))
+        int v = 0;
+        long u = a;
+        while (u % p == 0) {
+            u /= p;
+            ++v;
+        }
+        if (v % n != 0)
+            return new long[] {q};
+        final int k = (int)(v / n);
+        long unitModulus = 1;
+        for (int i = 0; i < e - v; ++i)
+            unitModulus *= p;
+        final long[] unitRoots = (p == 2)
+                ? unitRootsPowerOfTwo(n, u, e - v)
+                : unitRootsOddPrimePower(n, u, p, e - v, unitModulus);
+
+        // y only matters modulo p^(e-k), so every unit root has p^(v-k) lifts
+        long scale = 1;
+        for (int i = 0; i < k; ++i)
+            scale *= p;
+        final long lifts = q / scale / unitModulus;
+        final long[] result = new long[(int)(unitRoots.length * lifts) + 1];
+        int size = 0;
+        for (int i = 0; i < unitRoots.length; ++i) {
+            for (long j = 0; j < lifts; ++j)
+                result[size++] = (unitRoots[i] + j * unitModulus) * scale;
+        }
+        result[size] = q;
+        return result;
+    }
+
+    /**
+     * @param n Positive integer
+     * @param u Integer coprime with 'p'
+     * @param p Odd prime
+     * @param e Positive integer
+     * @param q p^e
+     * @return All units y modulo 'q' such that y^n ≡ u (mod q)
+     */
+    private static long[] unitRootsOddPrimePower(final long n, long u,
+            final long p, final int e, final long q) {
+        u %= q;
+        final long order = q / p * (p - 1); // phi(q)
+        final long d = Algorithms.gcd(n % order, order);
+        if (Algorithms.modPow(u, order / d, q) != 1)
+            return new long[0];
+        if (d == 1) // y -> y^n is a bijection
+            return new long[] {Algorithms.modPow(u, ModularSquareRoots.inverse(n % order, order), q)};
+
+        // y = g^t where n*t ≡ log(u) (mod order), t is unique modulo order/d
+        final PrimitiveRoots.Root root = PrimitiveRoots.of(q);
+        final long g = root.generator;
+        final long log = DiscreteLogarithm.pohligHellman(g, u, q, order, root.orderFactors);
+        if (log < 0)
+            throw new RuntimeException("Computational error.");
+        final long reducedOrder = order / d;
+        final long t = Algorithms.mulMod(log / d,
+                ModularSquareRoots.inverse(n / d % reducedOrder, reducedOrder), reducedOrder);
+
+        final long[] roots = new long[(int)d];
+        final long unity = Algorithms.modPow(g, reducedOrder, q); // primitive d-th root of 1
+        roots[0] = Algorithms.modPow(g, t, q);
+        for (int i = 1; i < d; ++i)
+            roots[i] = Algorithms.mulMod(roots[i - 1], unity, q);
+        return roots;
+    }
+
+    /**
+     * Lifts the roots from modulo 2^i to 2^(i+1), each root y gives
+     * candidates y and y + 2^i.
+     * @param n Positive integer
+     * @param u Odd integer
+     * @param e Positive integer
+     * @return All odd y modulo 2^e such that y^n ≡ u (mod 2^e)
+     */
+    private static long[] unitRootsPowerOfTwo(final long n, final long u, final int e) {
+        long[] roots = new long[] {1};
+        for (int i = 1; i < e; ++i) {
+            final long modulus = 2L << i;
+            final long[] lifted = new long[2 * roots.length];
+            int size = 0;
+            for (int j = 0; j < roots.length; ++j) {
+                for (long y = roots[j]; y < modulus; y += modulus / 2) {
+                    if (Algorithms.modPow(y, n, modulus) == (u & (modulus - 1)))
+                        lifted[size++] = y;
+                }
+            }
+            roots = Arrays.copyOf(lifted, size);
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * Square roots modulo composite numbers, engine of quadraticCongruenceSimple().
+ * The modulus is factorized, roots modulo odd primes are found by
+ * the Tonelli-Shanks algorithm and lifted to prime powers by Hensel's lemma,
+ * powers of 2 are solved bit by bit. The partial results are combined by the CRT.
+ * See Handbook of Applied Cryptography, sec. 3.5, pages 99-104 for details.
+ *
+ * The set of all roots modulo m is described by its smallest period t | m:
+ * all roots are x ≡ r (mod t) for r in [r1, ..., rk], every r < t.
+ *
+ * @author agent <agent(at)local>
+ */
+final class ModularSquareRoots {
+
+    private ModularSquareRoots() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * @param a Integer
+     * @param m Positive integer
+     * @return Array [r1, ..., rk, t] of all solutions of x^2 ≡ a (mod m)
+     * in ascending order modulo their smallest period t,
+     * or an empty array if no solutions exist
+     */
+    static long[] solve(long a, final long m) {
+        Algorithms.positiveCheck(m);
+        a %= m;
+        if (a < 0)
+            a += m;
+        if (m == 1)
+            return new long[] {0, 1};
+
+        final long[] factors = Factorizer.primeFactors(m);
+        long[] roots = new long[] {0};
+        long period = 1;
+        for (int i = 0, j = 0; i < factors.length; i = j) {
+            final long p = factors[i];
+            long primePower = 1;
+            while ((j < factors.length) && (factors[j] == p)) {
+                primePower *= p;
+                ++j;
+            }
+            final long[] partial = (p == 2)
+                    ? solvePowerOfTwo(a % primePower, primePower)
+                    : solveOddPrimePower(a % primePower, p, primePower);
+            if (partial.length == 0)
+                return partial;
+            roots = combine(roots, period, partial);
+            period *= partial[partial.length - 1];
+        }
+        Arrays.sort(roots);
+        final long[] result = Arrays.copyOf(roots, roots.length + 1);
+        result[roots.length] = period;
+        return result;
+    }
+
+    /**
+     * @param a Integer in range [0, q)
+     * @param p Odd prime
+     * @param q Power of 'p'
+     * @return Solutions of x^2 ≡ a (mod q) in the format of solve()
+     */
+    private static long[] solveOddPrimePower(final long a, final long p, final long q) {
+        if (a == 0)
+            return new long[] {0, ceilSqrtOfPrimePower(p, q)};
+
+        // a = p^v * u, then x = p^(v/2) * y where y^2 ≡ u (mod q / p^v)
+        int v = 0;
+        long u = a;
+        long reducedQ = q;
+        while (u % p == 0) {
+            u /= p;
+            reducedQ /= p;
+            ++v;
+        }
+        if ((v % 2 == 1) || (Algorithms.jacobiSymbol(u, p) != 1))
+            return new long[0];
+
+        final long y = henselLift(tonelliShanks(u % p, p), u, p, reducedQ);
+        long scale = 1;
+        for (int i = 0; i < v / 2; ++i)
+            scale *= p;
+        final long t = reducedQ * scale;    // x is determined modulo q / p^(v/2)
+        final long x1 = y * scale;
+        final long x2 = t - x1;
+        return (x1 < x2) ? new long[] {x1, x2, t} : new long[] {x2, x1, t};
+    }
+
+    /**
+     * @param a Integer in range [0, q)
+     * @param q Power of 2
+     * @return Solutions of x^2 ≡ a (mod q) in the format of solve()
+     */
+    private static long[] solvePowerOfTwo(final long a, final long q) {
+        if (a == 0)
+            return new long[] {0, ceilSqrtOfPrimePower(2, q)};
+
+        final int v = Long.numberOfTrailingZeros(a);
+        if (v % 2 == 1)
+            return new long[0];
+        final long u = a >>> v;
+        final int j = Long.numberOfTrailingZeros(q) - v; // y^2 ≡ u (mod 2^j)
+        final long scale = 1L << (v / 2);
+        if ((j == 1) || ((j == 2) && (u % 4 == 1)) || ((j == 3) && (u % 8 == 1)))
+            return new long[] {scale, 2 * scale};   // every odd y
+        if (u % 8 != 1)
+            return new long[0];
+
+        // Square roots of u modulo 2^j are ±y and ±y + 2^(j-1)
+        final long t = 1L << (j - 1);
+        long y = 1;
+        for (int k = 3; k < j; ++k) {
+            if (((y * y - u) & ((2L << k) - 1)) != 0)
+                y += 1L << (k - 1);
+        }
+        y &= t - 1;
+        final long x1 = Math.min(y, t - y) * scale;
+        final long x2 = Math.max(y, t - y) * scale;
+        return new long[] {x1, x2, t * scale};
+    }
+
+    /**
+     * @param p Prime
+     * @param q p^e
+     * @return p^ceil(e/2), the period of solutions of x^2 ≡ 0 (mod q)
+     */
+    private static long ceilSqrtOfPrimePower(final long p, final long q) {
+        long result = 1;
+        long square = 1;
+        while (square < q) {
+            result *= p;
+            square = (square > q / p / p) ? q : square * p * p;
+        }
+        return result;
+    }
+
+    /**
+     * Tonelli-Shanks algorithm.
+     * @param a Quadratic residue modulo 'p', 0 < a < p
+     * @param p Odd prime
+     * @return x such that x^2 ≡ a (mod p)
+     */
+    private static long tonelliShanks(final long a, final long p) {
+        if (p % 4 == 3)
+            return Algorithms.modPow(a, (p + 1) / 4, p);
+
+        // p - 1 = q * 2^s with q odd
+        final int s = Long.numberOfTrailingZeros(p - 1);
+        final long q = (p - 1) >>> s;
+        long z = 2;
+        while (Algorithms.jacobiSymbol(z, p) != -1)
+            ++z;
+
+        long c = Algorithms.modPow(z, q, p);
+        long x = Algorithms.modPow(a, (q + 1) / 2, p);
+        long t = Algorithms.modPow(a, q, p);
+        int m = s;
+        while (t != 1) {
+            int i = 0;
+            long t2 = t;
+            while (t2 != 1) {
+                t2 = Algorithms.mulMod(t2, t2, p);
+                ++i;
+            }
+            long b = c;
+            for (int k = 0; k < m - i - 1; ++k)
+                b = Algorithms.mulMod(b, b, p);
+            x = Algorithms.mulMod(x, b, p);
+            c = Algorithms.mulMod(b, b, p);
+            t = Algorithms.mulMod(t, c, p);
+            m = i;
+        }
+        return x;
+    }
+
+    /**
+     * Newton (Hensel) iteration y -> y - (y^2 - u) / 2y, each step doubles
+     * the exponent of 'p' modulo which y is correct.
+     * @param y Square root of 'u' modulo 'p'
+     * @param u Integer coprime with 'p'
+     * @param p Odd prime
+     * @param q Power of 'p'
+     * @return Square root of 'u' modulo 'q'
+     */
+    private static long henselLift(long y, final long u, final long p, final long q) {
+        long current = p;
+        while (current < q) {
+            current = (current > q / current) ? q : current * current;
+            final long uMod = u % current;
+            long f = Algorithms.mulMod(y, y, current) - uMod;
+            if (f < 0)
+                f += current;
+            final long inverse = inverse((y >= current - y) ? y - (current - y) : 2 * y, current);
+            y -= Algorithms.mulMod(f, inverse, current);
+            if (y < 0)
+                y += current;
+        }
+        return y;
+    }
+
+    /**
+     * @param a Integer coprime with 'm'
+     * @param m Integer > 1
+     * @return a^(-1) mod m
+     */
+    static long inverse(final long a, final long m) {
+        final long x = Algorithms.bezoutCoefficient(a, m) % m;
+        return (x < 0) ? x + m : x;
+    }
+
+    /**
+     * Chinese remainder theorem for every pair of residues.
+     * @param roots Residues modulo 'period'
+     * @param period Positive integer
+     * @param partial [r1, ..., rk, t] where t is coprime with 'period'
+     * @return All x modulo period*t with x ≡ roots[i] (mod period), x ≡ rj (mod t)
+     */
+    static long[] combine(final long[] roots, final long period,
+            final long[] partial) {
+        final int k = partial.length - 1;
+        final long t = partial[k];
+        final long[] combined = new long[roots.length * k];
+        // x = r + period * ((rj - r) * period^(-1) mod t)
+        final long periodInverse = inverse(period % t, t);
+        int size = 0;
+        for (int i = 0; i < roots.length; ++i) {
+            final long r = roots[i];
+            for (int j = 0; j < k; ++j) {
+                long difference = (partial[j] - r) % t;
+                if (difference < 0)
+                    difference += t;
+                combined[size++] = r + period * Algorithms.mulMod(difference, periodInverse, t);
+            }
+        }
+        return combined;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+/**
+ * Montgomery arithmetic modulo a fixed odd modulus n < 2^63 with R = 2^64.
+ * Numbers in Montgomery form are a*R mod n, so that a multiplication
+ * needs two 64-bit products and no division.
+ * See Handbook of Applied Cryptography, sec. 14.3.2, page 600 for details.
+ *
+ * @author agent <agent(at)local>
+ */
+final class Montgomery {
+
+    private final long n;       // odd modulus
+    private final long nPrime;  // -n^(-1) mod 2^64
+    private final long one;     // R mod n
+    private final long r2;      // R^2 mod n
+
+    /**
+     * @param n Odd integer > 1
+     */
+    Montgomery(final long n) {
+        Algorithms.notLessThanCheck(n, 3);
+        if (n % 2 == 0)
+            throw new IllegalArgumentException("Modulus " + n + " should be odd.");
+        this.n = n;
+
+        this.nPrime = -inverse(n);
+
+        // 2^63 mod n, then keep doubling to get 2^64 and 2^128 mod n
+        long r = ((Long.MAX_VALUE % n) + 1) % n;
+        r = doubleMod(r);
+        this.one = r;
+        for (int i = 0; i < 64; ++i)
+            r = doubleMod(r);
+        this.r2 = r;
+    }
+
+    long getModulus() {
+        return n;
+    }
+
+    /**
+     * @return 1 in Montgomery form
+     */
+    long one() {
+        return one;
+    }
+
+    /**
+     * @param a Integer in range [0, n)
+     * @return a*R mod n
+     */
+    long toMontgomery(final long a) {
+        return multiply(a, r2);
+    }
+
+    /**
+     * @param a Integer in Montgomery form
+     * @return a*R^(-1) mod n
+     */
+    long fromMontgomery(final long a) {
+        return reduce(0, a);
+    }
+
+    /**
+     * @param a Integer in Montgomery form
+     * @param b Integer in Montgomery form
+     * @return a*b in Montgomery form
+     */
+    long multiply(final long a, final long b) {
+        return reduce(multiplyHighUnsigned(a, b), a * b);
+    }
+
+    /**
+     * @param base Integer in Montgomery form
+     * @param exp Non-negative integer
+     * @return base^exp in Montgomery form
+     */
+    long pow(long base, long exp) {
+        long result = one;
+        while (exp > 0) {
+            if ((exp & 1) == 1)
+                result = multiply(result, base);
+            base = multiply(base, base);
+            exp >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Montgomery reduction of the 128-bit number hi*2^64 + lo, where hi < n.
+     * @return (hi*2^64 + lo)*R^(-1) mod n
+     */
+    private long reduce(final long hi, final long lo) {
+        final long m = lo * nPrime;
+        // lo + low(m*n) is 0 mod 2^64, it carries exactly when lo != 0
+        long t = hi + multiplyHighUnsigned(m, n) + (lo != 0 ? 1 : 0);
+        if ((t < 0) || (t >= n)) // t < 2n, compared as unsigned
+            t -= n;
+        return t;
+    }
+
+    /**
+     * Newton iteration, each step doubles the number of correct bits
+     * (n is its own inverse modulo 8).
+     * @param n Odd integer
+     * @return n^(-1) mod 2^64
+     */
+    static long inverse(final long n) {
+        long inverse = n;
+        for (int i = 0; i < 5; ++i)
+            inverse *= 2 - n * inverse;
+        return inverse;
+    }
+
+    private long doubleMod(final long a) {
+        return (a >= n - a) ? a - (n - a) : a + a;
+    }
+
+    /**
+     * @param x Unsigned 64-bit integer
+     * @param y Unsigned 64-bit integer
+     * @return Upper 64 bits of the unsigned 128-bit product x*y
+     */
+    static long multiplyHighUnsigned(final long x, final long y) {
+        final long x0 = x & 0xFFFFFFFFL;
+        final long x1 = x >>> 32;
+        final long y0 = y & 0xFFFFFFFFL;
+        final long y1 = y >>> 32;
+        final long t = x1 * y0 + ((x0 * y0) >>> 32);
+        final long w = x0 * y1 + (t & 0xFFFFFFFFL);
+        return x1 * y1 + (t >>> 32) + (w >>> 32);
+    }
+}
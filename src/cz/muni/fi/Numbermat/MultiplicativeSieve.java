@@ -0,0 +1,109 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+/**
+ * Segmented sieve for multiplicative functions over a range [lo, hi].
+ * Every prime p <= sqrt(hi) visits only its multiples in the range and divides
+ * them out, whatever remains above 1 is the single prime factor > sqrt(hi).
+ * The range is processed in segments, so the working array stays in cache
+ * and the only large allocation is the result.
+ *
+ * @author agent <agent(at)local>
+ */
+final class MultiplicativeSieve {
+
+    private MultiplicativeSieve() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Number of integers sieved at once.
+     */
+    private static final int SEGMENT_SIZE = 1 << 15;
+
+    /**
+     * @param lo Positive integer
+     * @param hi Integer >= lo
+     * @return Array of phi(lo), phi(lo + 1), ..., phi(hi)
+     */
+    static int[] eulerPhi(final int lo, final int hi) {
+        return sieve(lo, hi, false);
+    }
+
+    /**
+     * @param lo Positive integer
+     * @param hi Integer >= lo
+     * @return Array of mu(lo), mu(lo + 1), ..., mu(hi)
+     */
+    static int[] moebius(final int lo, final int hi) {
+        return sieve(lo, hi, true);
+    }
+
+    private static int[] sieve(final int lo, final int hi, final boolean moebius) {
+        Algorithms.positiveCheck(lo);
+        Algorithms.notLessThanCheck(hi, lo);
+        final int[] primes = PrimeSieve.primesUpTo((int)Math.sqrt((double)hi));
+        final int[] result = new int[hi - lo + 1];
+        final int[] rest = new int[Math.min(SEGMENT_SIZE, result.length)];
+
+        for (long start = lo; start <= hi; start += SEGMENT_SIZE) {
+            final long end = Math.min(hi, start + SEGMENT_SIZE - 1);
+            final int offset = (int)(start - lo);
+            final int length = (int)(end - start + 1);
+            for (int i = 0; i < length; ++i) {
+                rest[i] = (int)(start + i);
+                result[offset + i] = moebius ? 1 : (int)(start + i);
+            }
+
+            for (int j = 0; j < primes.length; ++j) {
+                final int p = primes[j];
+                if ((long)p * p > end)
+                    break;
+                for (long k = (start + p - 1) / p * p; k <= end; k += p) {
+                    final int i = (int)(k - start);
+                    rest[i] /= p;
+                    if (moebius) {
+                        if (rest[i] % p == 0) {
+                            result[offset + i] = 0;
+                            while (rest[i] % p == 0)
+                                rest[i] /= p;
+                        } else {
+                            result[offset + i] = -result[offset + i];
+                        }
+                    } else {
+                        result[offset + i] = result[offset + i] / p * (p - 1);
+                        while (rest[i] % p == 0)
+                            rest[i] /= p;
+                    }
+                }
+            }
+
+            // At most one prime factor exceeds sqrt(hi)
+            for (int i = 0; i < length; ++i) {
+                final int q = rest[i];
+                if (q > 1)
+                    result[offset + i] = moebius ? -result[offset + i]
+                            : result[offset + i] / q * (q - 1);
+            }
+        }
+        return result;
+    }
+}
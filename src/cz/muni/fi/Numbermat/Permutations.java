@@ -0,0 +1,332 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Permutations of {1, ..., n} stored in primitive arrays, perm[i] is the image of i + 1
+ * (the same one-line notation as the lists used by class Algorithms).
+ * Every operation walks each cycle once, so it runs in O(n) time.
+ * Conjugacy classes are described by cycle types, maps (cycle length -> multiplicity),
+ * which are enough to compute the order of arbitrarily large permutations.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class Permutations {
+
+    private Permutations() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Throws exception if the input array is not a permutation.
+     * @param perm Array of integers
+     */
+    public static void check(final int[] perm) {
+        final BitSet seen = new BitSet(perm.length);
+        for (int i = 0; i < perm.length; ++i) {
+            final int image = perm[i];
+            if ((image < 1) || (image > perm.length) || (seen.get(image - 1)))
+                throw new IllegalArgumentException(Arrays.toString(perm) + " is not a permutation.");
+            seen.set(image - 1);
+        }
+    }
+
+    /**
+     * Decomposes a permutation into independent cycles.
+     * @param perm Permutation
+     * @return Non-trivial cycles, each starting with its smallest element,
+     * ordered by their smallest elements
+     */
+    public static int[][] cycles(final int[] perm) {
+        check(perm);
+        final BitSet visited = new BitSet(perm.length);
+        final List<int[]> result = new ArrayList<>();
+        for (int start = visited.nextClearBit(0); start < perm.length;
+                start = visited.nextClearBit(start + 1)) {
+            int length = 0;
+            for (int i = start; !visited.get(i); i = perm[i] - 1) {
+                visited.set(i);
+                ++length;
+            }
+            if (length == 1) // identity on 'start'
+                continue;
+            final int[] cycle = new int[length];
+            for (int j = 0, i = start; j < length; ++j, i = perm[i] - 1)
+                cycle[j] = i + 1;
+            result.add(cycle);
+        }
+        return result.toArray(new int[result.size()][]);
+    }
+
+    /**
+     * @param perm Permutation
+     * @return Order of the permutation, lcm of its cycle lengths
+     * @throws RuntimeException if the order exceeds Long.MAX_VALUE,
+     * see order(cycleType(perm))
+     */
+    public static long order(final int[] perm) {
+        check(perm);
+        final BitSet visited = new BitSet(perm.length);
+        final BitSet lengths = new BitSet(perm.length + 1);
+        long order = 1;
+        for (int start = visited.nextClearBit(0); start < perm.length;
+                start = visited.nextClearBit(start + 1)) {
+            int length = 0;
+            for (int i = start; !visited.get(i); i = perm[i] - 1) {
+                visited.set(i);
+                ++length;
+            }
+            if (!lengths.get(length)) {
+                lengths.set(length);
+                order = LongAlgorithms.lcm(order, length);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @param perm Permutation
+     * @return Cycle type, map (cycle length -> number of such cycles)
+     * including fixed points as cycles of length 1
+     */
+    public static SortedMap<Integer, Integer> cycleType(final int[] perm) {
+        check(perm);
+        final int[] multiplicities = new int[perm.length + 1];
+        final BitSet visited = new BitSet(perm.length);
+        for (int start = visited.nextClearBit(0); start < perm.length;
+                start = visited.nextClearBit(start + 1)) {
+            int length = 0;
+            for (int i = start; !visited.get(i); i = perm[i] - 1) {
+                visited.set(i);
+                ++length;
+            }
+            ++multiplicities[length];
+        }
+        final SortedMap<Integer, Integer> result = new TreeMap<>();
+        for (int length = 1; length < multiplicities.length; ++length) {
+            if (multiplicities[length] > 0)
+                result.put(length, multiplicities[length]);
+        }
+        return result;
+    }
+
+    /**
+     * Order of any permutation of the given cycle type without size limits.
+     * The lcm of the cycle lengths is the product of the highest power
+     * of each prime dividing some length.
+     * @param cycleType Map (cycle length -> number of such cycles)
+     * @return Order of the permutation
+     */
+    public static BigInteger order(final SortedMap<Integer, Integer> cycleType) {
+        cycleTypeCheck(cycleType);
+        final Map<Long, Long> highestPowers = new HashMap<>();
+        for (final int length : cycleType.keySet()) {
+            if (length == 1)
+                continue;
+            final long[] factors = Factorizer.primeFactors(length);
+            for (int i = 0, j = 0; i < factors.length; i = j) {
+                long primePower = 1;
+                while ((j < factors.length) && (factors[j] == factors[i])) {
+                    primePower *= factors[j];
+                    ++j;
+                }
+                final Long known = highestPowers.get(factors[i]);
+                if ((known == null) || (known < primePower))
+                    highestPowers.put(factors[i], primePower);
+            }
+        }
+        BigInteger order = BigInteger.ONE;
+        for (final long primePower : highestPowers.values())
+            order = order.multiply(BigInteger.valueOf(primePower));
+        return order;
+    }
+
+    /**
+     * Cycle type of a uniformly distributed random permutation, sampled without
+     * building the permutation: the cycle containing a fixed element of a random
+     * permutation of m elements has length uniform on [1, m] and the remaining
+     * elements form a random permutation again. Expected time is O(log size).
+     * @param size Positive integer
+     * @param random Source of randomness
+     * @return Map (cycle length -> number of such cycles)
+     */
+    public static SortedMap<Integer, Integer> randomCycleType(final int size, final Random random) {
+        Algorithms.positiveCheck(size);
+        final SortedMap<Integer, Integer> result = new TreeMap<>();
+        for (int remaining = size; remaining > 0; ) {
+            final int length = 1 + random.nextInt(remaining);
+            final Integer count = result.get(length);
+            result.put(length, (count == null) ? 1 : count + 1);
+            remaining -= length;
+        }
+        return result;
+    }
+
+    /**
+     * Random permutation of the given cycle type: a shuffled sequence
+     * of all elements is cut into consecutive cycles.
+     * @param cycleType Map (cycle length -> number of such cycles)
+     * @param random Source of randomness
+     * @return Uniformly distributed permutation among those of the given cycle type
+     */
+    public static int[] random(final SortedMap<Integer, Integer> cycleType, final Random random) {
+        final int[] elements = random(cycleTypeCheck(cycleType), random);
+        final int[] perm = new int[elements.length];
+        int position = 0;
+        for (final Map.Entry<Integer, Integer> entry : cycleType.entrySet()) {
+            final int length = entry.getKey();
+            for (int c = 0; c < entry.getValue(); ++c) {
+                for (int j = 0; j < length; ++j) {
+                    final int next = (j + 1 < length) ? j + 1 : 0;
+                    perm[elements[position + j] - 1] = elements[position + next];
+                }
+                position += length;
+            }
+        }
+        return perm;
+    }
+
+    /**
+     * Throws exception if the input is not a cycle type of some permutation.
+     * @param cycleType Map (cycle length -> number of such cycles)
+     * @return Size of the permutations of this cycle type
+     */
+    private static int cycleTypeCheck(final SortedMap<Integer, Integer> cycleType) {
+        long size = 0;
+        for (final Map.Entry<Integer, Integer> entry : cycleType.entrySet()) {
+            Algorithms.positiveCheck(entry.getKey());
+            Algorithms.positiveCheck(entry.getValue());
+            size += (long)entry.getKey() * entry.getValue();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException(cycleType + " is too large.");
+        }
+        Algorithms.positiveCheck((int)size);
+        return (int)size;
+    }
+
+    /**
+     * @param first Permutation
+     * @param second Permutation of the same size
+     * @return Composition first ∘ second, i.e. i -> first(second(i))
+     */
+    public static int[] compose(final int[] first, final int[] second) {
+        check(first);
+        check(second);
+        if (first.length != second.length)
+            throw new IllegalArgumentException("Permutation sizes differ: "
+                    + first.length + ", " + second.length);
+        final int[] result = new int[first.length];
+        for (int i = 0; i < result.length; ++i)
+            result[i] = first[second[i] - 1];
+        return result;
+    }
+
+    /**
+     * @param perm Permutation
+     * @return Inverse permutation
+     */
+    public static int[] inverse(final int[] perm) {
+        check(perm);
+        final int[] result = new int[perm.length];
+        for (int i = 0; i < perm.length; ++i)
+            result[perm[i] - 1] = i + 1;
+        return result;
+    }
+
+    /**
+     * Every cycle of length L is rotated by k mod L positions,
+     * so the cost does not depend on 'k'.
+     * @param perm Permutation
+     * @param k Integer, negative means a power of the inverse
+     * @return perm^k
+     */
+    public static int[] power(final int[] perm, final long k) {
+        check(perm);
+        final int[] result = new int[perm.length];
+        final int[] cycle = new int[perm.length];
+        final BitSet visited = new BitSet(perm.length);
+        for (int start = visited.nextClearBit(0); start < perm.length;
+                start = visited.nextClearBit(start + 1)) {
+            int length = 0;
+            for (int i = start; !visited.get(i); i = perm[i] - 1) {
+                visited.set(i);
+                cycle[length++] = i;
+            }
+            int shift = (int)(k % length);
+            if (shift < 0)
+                shift += length;
+            for (int j = 0, target = shift; j < length; ++j) {
+                result[cycle[j]] = cycle[target] + 1;
+                if (++target == length)
+                    target = 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param perm Permutation
+     * @return 1 for an even permutation, -1 for an odd one
+     */
+    public static int sign(final int[] perm) {
+        check(perm);
+        final BitSet visited = new BitSet(perm.length);
+        int cycleCount = 0;
+        for (int start = visited.nextClearBit(0); start < perm.length;
+                start = visited.nextClearBit(start + 1)) {
+            for (int i = start; !visited.get(i); i = perm[i] - 1)
+                visited.set(i);
+            ++cycleCount;
+        }
+        // A cycle of length L is a product of L - 1 transpositions
+        return ((perm.length - cycleCount) % 2 == 0) ? 1 : -1;
+    }
+
+    /**
+     * Fisher-Yates shuffle of the identity.
+     * @param size Positive integer
+     * @param random Source of randomness
+     * @return Uniformly distributed random permutation with 'size' elements
+     */
+    public static int[] random(final int size, final Random random) {
+        Algorithms.positiveCheck(size);
+        final int[] perm = new int[size];
+        for (int i = 0; i < size; ++i)
+            perm[i] = i + 1;
+        for (int i = size - 1; i > 0; --i) {
+            final int j = random.nextInt(i + 1);
+            final int swap = perm[i];
+            perm[i] = perm[j];
+            perm[j] = swap;
+        }
+        return perm;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+/**
+ * Prime-counting function pi(x) for x beyond the prime table.
+ * Lucy_Hedgehog's algorithm: S(v) = number of integers in [2, v] surviving
+ * the sieve by primes < p is maintained only for the O(sqrt(x)) distinct
+ * values v = x / i. Sieving by prime p updates S(v) -= S(v / p) - S(p - 1)
+ * for v >= p^2, which takes O(x^(3/4) / log(x)) time and O(sqrt(x)) memory.
+ * The k-th prime is located by inverting the logarithmic integral, counting
+ * primes up to the estimate and sieving the small remaining gap.
+ *
+ * @author agent <agent(at)local>
+ */
+final class PrimeCounting {
+
+    private PrimeCounting() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Largest supported argument, pi(10^12) takes about 16 MB of memory.
+     */
+    static final long LIMIT = 1000000000000L;
+
+    /**
+     * pi(LIMIT)
+     */
+    static final long LIMIT_COUNT = 37607912018L;
+
+    /**
+     * Ranges narrower than this are sieved instead of counted by differences.
+     */
+    private static final long SIEVE_RANGE = 1L << 24;
+
+    /**
+     * @param x Long integer, at most LIMIT
+     * @return Number of primes <= x
+     */
+    static long count(final long x) {
+        Algorithms.notGreaterThanCheck(x, LIMIT);
+        if (x < 2)
+            return 0;
+        if (x <= Math.max(PrimeSieve.getLimit(), PrimeSieve.INITIAL_LIMIT))
+            return PrimeSieve.primeCount((int)x);
+        if (x < SIEVE_RANGE)
+            return SegmentedSieve.count(0, x + 1);
+        return lucy(x);
+    }
+
+    /**
+     * @param lo Non-negative long integer
+     * @param hi Long integer >= lo, at most LIMIT
+     * @return Number of primes in [lo, hi]
+     */
+    static long count(final long lo, final long hi) {
+        Algorithms.notNegativeCheck(lo);
+        Algorithms.notLessThanCheck(hi, lo);
+        Algorithms.notGreaterThanCheck(hi, LIMIT);
+        if (hi - lo < SIEVE_RANGE)
+            return SegmentedSieve.count(lo, hi + 1);
+        return count(hi) - count(lo - 1);
+    }
+
+    /**
+     * @param k Positive long integer, at most LIMIT_COUNT
+     * @return k-th prime (the first one is 2)
+     */
+    static long nthPrime(final long k) {
+        Algorithms.positiveCheck(k);
+        Algorithms.notGreaterThanCheck(k, LIMIT_COUNT);
+        if (k <= PrimeSieve.primeCount(PrimeSieve.INITIAL_LIMIT))
+            return PrimeSieve.nthPrime((int)k);
+
+        // li^-1(k) is within O(sqrt(x) log(x)) of the k-th prime
+        final long estimate = Math.min(LIMIT, Math.max(PrimeSieve.INITIAL_LIMIT,
+                (long)inverseLogIntegral((double)k)));
+        long below = count(estimate); // primes <= 'low' - 1 for the forward search
+        if (below < k) {
+            for (long low = estimate + 1; ; low += SIEVE_RANGE) {
+                final long[] primes = SegmentedSieve.primes(low, low + SIEVE_RANGE);
+                if (below + primes.length >= k)
+                    return primes[(int)(k - below - 1)];
+                below += primes.length;
+            }
+        }
+        for (long high = estimate + 1; ; high -= SIEVE_RANGE) {
+            final long low = Math.max(0, high - SIEVE_RANGE);
+            final long[] primes = SegmentedSieve.primes(low, high);
+            // primes <= high - 1 number 'below', the k-th is among them
+            if (below - primes.length < k)
+                return primes[(int)(k - (below - primes.length) - 1)];
+            below -= primes.length;
+        }
+    }
+
+    private static long lucy(final long x) {
+        final int r = (int)floorSqrt(x);
+        final long[] small = new long[r + 1]; // small[v] = S(v)
+        final long[] large = new long[r + 1]; // large[i] = S(x / i)
+        for (int i = 1; i <= r; ++i) {
+            small[i] = i - 1;
+            large[i] = x / i - 1;
+        }
+
+        for (int p = 2; p <= r; ++p) {
+            if (small[p] == small[p - 1])
+                continue; // p is composite
+            final long previous = small[p - 1]; // primes < p
+            final long square = (long)p * p;
+            final int largeEnd = (int)Math.min(r, x / square);
+            final int direct = Math.min(largeEnd, r / p);
+            for (int i = 1; i <= direct; ++i)
+                large[i] -= large[i * p] - previous;
+            final long xp = x / p;
+            for (int i = direct + 1; i <= largeEnd; ++i)
+                large[i] -= small[(int)(xp / i)] - previous;
+            for (int v = r; v >= square; --v)
+                small[v] -= small[v / p] - previous;
+        }
+        return large[1];
+    }
+
+    /**
+     * Ramanujan's series for the logarithmic integral.
+     * @param x Real number > 1
+     * @return li(x)
+     */
+    private static double logIntegral(final double x) {
+        final double euler = 0.5772156649015329;
+        final double log = Math.log(x);
+        double sum = 0;
+        double term = 1;      // (-1)^(n-1) log^n / (n! 2^(n-1))
+        double inner = 0;     // sum of 1 / (2j + 1) for j <= (n-1)/2
+        for (int n = 1; n < 200; ++n) {
+            term *= (n == 1) ? log : -log / (n * 2.0);
+            if (n % 2 == 1)
+                inner += 1.0 / n;
+            final double delta = term * inner;
+            sum += delta;
+            if (Math.abs(delta) < 1e-17 * Math.abs(sum))
+                break;
+        }
+        return euler + Math.log(log) + Math.sqrt(x) * sum;
+    }
+
+    /**
+     * Newton's method for li(x) = y.
+     * @param y Real number >= 2
+     * @return x such that li(x) = y
+     */
+    private static double inverseLogIntegral(final double y) {
+        double x = y * Math.log(y);
+        for (int i = 0; i < 100; ++i) {
+            final double next = x - (logIntegral(x) - y) * Math.log(x);
+            if (Math.abs(next - x) < 1)
+                return next;
+            x = next;
+        }
+        return x;
+    }
+
+    /**
+     * @param n Non-negative long integer
+     * @return Largest r such that r^2 <= n
+     */
+    private static long floorSqrt(final long n) {
+        long r = (long)Math.sqrt((double)n);
+        while (r * r > n)
+            --r;
+        while ((r + 1) * (r + 1) <= n)
+            ++r;
+        return r;
+    }
+}
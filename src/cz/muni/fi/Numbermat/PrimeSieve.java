@@ -0,0 +1,305 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * Shared table of primes stored as a bitset over the mod 30 wheel.
+ * Each byte covers 30 consecutive integers, one bit per residue coprime
+ * with 30 (multiples of 2, 3 and 5 are not stored at all).
+ * The table is sieved lazily on first use and grows on demand.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class PrimeSieve {
+
+    private PrimeSieve() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Range sieved on first use, covers all user inputs (see Config.MAX_INT).
+     */
+    public static final int INITIAL_LIMIT = 1 << 20;
+
+    /**
+     * The table never grows beyond this limit (about 4.5 MB of memory).
+     */
+    public static final int MAX_LIMIT = 1 << 27;
+
+    /**
+     * Residues modulo 30 which are coprime with 30.
+     */
+    private static final int[] WHEEL = new int[] {1, 7, 11, 13, 17, 19, 23, 29};
+
+    /**
+     * Bit index of residue modulo 30 or -1 if the residue is not coprime with 30.
+     */
+    private static final int[] BIT_INDEX = new int[30];
+
+    /**
+     * Mask of the bits for residues up to i modulo 30.
+     */
+    private static final int[] PREFIX_MASK = new int[30];
+
+    static {
+        for (int i = 0; i < 30; ++i)
+            BIT_INDEX[i] = -1;
+        for (int i = 0; i < WHEEL.length; ++i)
+            BIT_INDEX[WHEEL[i]] = i;
+        for (int i = 0, mask = 0; i < 30; ++i) {
+            if (BIT_INDEX[i] >= 0)
+                mask |= 1 << BIT_INDEX[i];
+            PREFIX_MASK[i] = mask;
+        }
+    }
+
+    /**
+     * Number of bytes of the table per one stored prefix count.
+     */
+    private static final int COUNT_BLOCK = 64;
+
+    /**
+     * Immutable snapshot of the sieve. Replaced as a whole when the table grows.
+     */
+    private static final class Table {
+        private final int limit;     // all integers in [0, limit] are covered
+        private final byte[] bits;   // bit set <=> number is prime
+        private final int[] counts;  // primes > 5 in bytes [0, i * COUNT_BLOCK)
+
+        private Table(final int limit, final byte[] bits) {
+            this.limit = limit;
+            this.bits = bits;
+            this.counts = new int[(bits.length + COUNT_BLOCK - 1) / COUNT_BLOCK + 1];
+            for (int block = 0, count = 0; block + 1 < counts.length; ++block) {
+                final int end = Math.min(bits.length, (block + 1) * COUNT_BLOCK);
+                for (int i = block * COUNT_BLOCK; i < end; ++i)
+                    count += Integer.bitCount(bits[i] & 0xFF);
+                counts[block + 1] = count;
+            }
+        }
+    }
+
+    private static volatile Table table;
+
+    /**
+     * @param n Integer
+     * @return Is 'n' prime? Answered from the table for 'n' up to MAX_LIMIT.
+     * @throws IllegalArgumentException If 'n' is greater than MAX_LIMIT
+     */
+    public static boolean isPrime(final int n) {
+        if (n < 7)
+            return (n == 2) || (n == 3) || (n == 5);
+
+        final int bit = BIT_INDEX[n % 30];
+        if (bit < 0)
+            return false;
+        return (ensureLimit(n).bits[n / 30] & (1 << bit)) != 0;
+    }
+
+    /**
+     * @param n Integer
+     * @return Smallest prime >= n
+     * @throws IllegalArgumentException If there is no such prime up to MAX_LIMIT
+     */
+    public static int nextPrime(final int n) {
+        if (n <= 2)
+            return 2;
+        Algorithms.notGreaterThanCheck(n, MAX_LIMIT);
+        for (int i = n; i <= MAX_LIMIT; ++i) {
+            if (isPrime(i))
+                return i;
+        }
+        throw new IllegalArgumentException("No prime found in range ["
+                + n + ", " + MAX_LIMIT + "].");
+    }
+
+    /**
+     * @param n Integer
+     * @return Largest prime <= n or -1 if there is no such prime
+     * @throws IllegalArgumentException If 'n' is greater than MAX_LIMIT
+     */
+    public static int previousPrime(final int n) {
+        Algorithms.notGreaterThanCheck(n, MAX_LIMIT);
+        for (int i = n; i >= 2; --i) {
+            if (isPrime(i))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Prime-counting function, answered from prefix counts of the table
+     * and at most COUNT_BLOCK byte lookups.
+     * @param n Integer
+     * @return Number of primes <= n
+     * @throws IllegalArgumentException If 'n' is greater than MAX_LIMIT
+     */
+    public static int primeCount(final int n) {
+        if (n < 7)
+            return (n >= 5) ? 3 : (n >= 3) ? 2 : (n >= 2) ? 1 : 0;
+
+        final Table current = ensureLimit(n);
+        final int byteIndex = n / 30;
+        final int block = byteIndex / COUNT_BLOCK;
+        int count = 3 + current.counts[block];
+        for (int i = block * COUNT_BLOCK; i < byteIndex; ++i)
+            count += Integer.bitCount(current.bits[i] & 0xFF);
+        return count + Integer.bitCount(current.bits[byteIndex] & PREFIX_MASK[n % 30]);
+    }
+
+    /**
+     * @param k Positive integer
+     * @return k-th prime (the first one is 2)
+     * @throws IllegalArgumentException If the k-th prime is greater than MAX_LIMIT
+     */
+    public static int nthPrime(final int k) {
+        Algorithms.positiveCheck(k);
+        if (k <= 3)
+            return new int[] {2, 3, 5}[k - 1];
+
+        final int target = k - 3; // among primes coprime with 30
+        Table current = ensureLimit(INITIAL_LIMIT);
+        while (current.counts[current.counts.length - 1] < target) {
+            if (current.limit == MAX_LIMIT)
+                throw new IllegalArgumentException("The " + k
+                        + "-th prime is greater than " + MAX_LIMIT);
+            current = grow((int)Math.min(2L * current.limit, MAX_LIMIT));
+        }
+
+        // Last block with fewer than 'target' primes before it
+        final int[] counts = current.counts;
+        int low = 0;
+        int high = counts.length - 1;
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (counts[middle] < target)
+                low = middle;
+            else
+                high = middle;
+        }
+        int count = counts[low];
+        for (int i = low * COUNT_BLOCK; ; ++i) {
+            final int byteBits = current.bits[i] & 0xFF;
+            if (count + Integer.bitCount(byteBits) < target) {
+                count += Integer.bitCount(byteBits);
+                continue;
+            }
+            for (int bit = 0; bit < WHEEL.length; ++bit) {
+                if ((((byteBits >> bit) & 1) != 0) && (++count == target))
+                    return 30 * i + WHEEL[bit];
+            }
+        }
+    }
+
+    /**
+     * @param n Integer
+     * @return All primes <= n in ascending order
+     * @throws IllegalArgumentException If 'n' is greater than MAX_LIMIT
+     */
+    static int[] primesUpTo(final int n) {
+        final int[] primes = new int[primeCount(n)];
+        if (primes.length == 0)
+            return primes;
+        final byte[] bits = ensureLimit(n).bits;
+        final int[] small = new int[] {2, 3, 5};
+        int count = 0;
+        for (; (count < small.length) && (count < primes.length); ++count)
+            primes[count] = small[count];
+        for (int i = 0; count < primes.length; ++i) {
+            for (int bit = 0; (bit < WHEEL.length) && (count < primes.length); ++bit) {
+                if (((bits[i] >> bit) & 1) != 0)
+                    primes[count++] = 30 * i + WHEEL[bit];
+            }
+        }
+        return primes;
+    }
+
+    /**
+     * @return Highest integer currently covered by the table
+     */
+    public static int getLimit() {
+        final Table current = table;
+        return (current == null) ? 0 : current.limit;
+    }
+
+    /**
+     * Makes sure the table covers 'n', sieving a larger range if needed.
+     * @param n Integer <= MAX_LIMIT
+     * @return Table covering 'n'
+     */
+    private static Table ensureLimit(final int n) {
+        final Table current = table;
+        if ((current != null) && (n <= current.limit))
+            return current;
+        Algorithms.notGreaterThanCheck(n, MAX_LIMIT);
+        return grow(n);
+    }
+
+    private static synchronized Table grow(final int n) {
+        final Table current = table;
+        if ((current != null) && (n <= current.limit))
+            return current;
+
+        long newLimit = (current == null) ? INITIAL_LIMIT : current.limit;
+        while (newLimit < n)
+            newLimit *= 2;
+        final Table grown = sieve((int)Math.min(newLimit, MAX_LIMIT));
+        table = grown;
+        return grown;
+    }
+
+    /**
+     * Sieve of Eratosthenes restricted to the mod 30 wheel.
+     * Only multiples p*q where both p, q are coprime with 30 are crossed out.
+     * @param limit Positive integer
+     * @return Table covering [0, limit]
+     */
+    private static Table sieve(final int limit) {
+        final byte[] bits = new byte[limit / 30 + 1];
+        Arrays.fill(bits, (byte)0xFF);
+        bits[0] &= ~1; // 1 is not a prime
+
+        for (int p = 7; (long)p * p <= limit; p += 2) {
+            final int pBit = BIT_INDEX[p % 30];
+            if ((pBit < 0) || ((bits[p / 30] & (1 << pBit)) == 0))
+                continue;
+
+            // Walk q over the wheel starting at p, cross out p*q
+            int q = p;
+            int wheelIndex = pBit;
+            while ((long)p * q <= limit) {
+                final int m = p * q;
+                bits[m / 30] &= ~(1 << BIT_INDEX[m % 30]);
+                final int next = (wheelIndex + 1) % WHEEL.length;
+                q += (next == 0 ? 30 + WHEEL[0] : WHEEL[next]) - WHEEL[wheelIndex];
+                wheelIndex = next;
+            }
+        }
+        // Clear bits of numbers above limit in the last byte
+        final int lastByte = limit / 30;
+        for (int i = 0; i < WHEEL.length; ++i) {
+            if ((long)lastByte * 30 + WHEEL[i] > limit)
+                bits[lastByte] &= ~(1 << i);
+        }
+        return new Table(limit, bits);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+
+/**
+ * Primitive roots modulo m = 2, 4, p^e, 2p^e (the moduli with cyclic group Zm×).
+ * Candidate g is a generator iff g^(phi(m)/q) ≢ 1 (mod m) for every prime q
+ * dividing phi(m). The smallest root is stored together with the factorization
+ * of phi(m) in a MemoCache, so that generating problems with the same modulus
+ * repeatedly factorizes the group order only once.
+ *
+ * @author agent <agent(at)local>
+ */
+final class PrimitiveRoots {
+
+    private PrimitiveRoots() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Roots of recently used moduli.
+     */
+    static final MemoCache<Root> CACHE = new MemoCache<>("primitiveRoot", 1024,
+            new MemoCache.Loader<Root>() {
+                @Override
+                public Root load(final long m) {
+                    return compute(m);
+                }
+            });
+
+    /**
+     * Cyclic group Zm× described by its smallest generator.
+     */
+    static final class Root {
+
+        /**
+         * m
+         */
+        final long modulus;
+
+        /**
+         * Smallest primitive root modulo m
+         */
+        final long generator;
+
+        /**
+         * phi(m), the order of the group
+         */
+        final long order;
+
+        /**
+         * Distinct prime factors of phi(m) in ascending order
+         */
+        final long[] orderFactors;
+
+        private Root(final long modulus, final long generator, final long order,
+                final long[] orderFactors) {
+            this.modulus = modulus;
+            this.generator = generator;
+            this.order = order;
+            this.orderFactors = orderFactors;
+        }
+    }
+
+    /**
+     * @param m Long integer > 1
+     * @return Smallest primitive root modulo m with the factorization of phi(m)
+     * @throws IllegalArgumentException if no primitive roots modulo m exist
+     */
+    static Root of(final long m) {
+        Algorithms.notLessThanCheck(m, 2L);
+        return CACHE.get(m);
+    }
+
+    /**
+     * @param m Long integer > 1
+     * @return Do primitive roots mod m exist?
+     */
+    static boolean exist(final long m) {
+        Algorithms.notLessThanCheck(m, 2L);
+        if ((m == 2) || (m == 4))
+            return true;
+        if (m % 4 == 0)
+            return false;
+        final long odd = (m % 2 == 0) ? m / 2 : m;
+        if (odd == 1)
+            return false;
+        final long[] factors = Factorizer.primeFactors(odd);
+        return factors[0] == factors[factors.length - 1];
+    }
+
+    private static Root compute(final long m) {
+        if (!exist(m))
+            throw new IllegalArgumentException("Primitive roots mod " + m + " do not exist.");
+        if (m == 2)
+            return new Root(m, 1, 1, new long[0]);
+        if (m == 4)
+            return new Root(m, 3, 2, new long[] {2});
+
+        // m = p^e or 2p^e, phi(m) = p^(e-1) * (p-1)
+        final long odd = (m % 2 == 0) ? m / 2 : m;
+        final long[] factors = Factorizer.primeFactors(odd);
+        final long p = factors[0];
+        final long order = odd / p * (p - 1);
+        final long[] orderFactors = distinct(Factorizer.primeFactors(p - 1),
+                factors.length > 1 ? p : 0);
+
+        for (long g = 2; g < m; ++g) {
+            if ((Algorithms.gcd(g, m) == 1) && (isGenerator(g, m, order, orderFactors)))
+                return new Root(m, g, order, orderFactors);
+        }
+        throw new RuntimeException("Computational error.");
+    }
+
+    /**
+     * @param g Unit modulo 'modulus'
+     * @param modulus Positive long integer
+     * @param order Order of the group
+     * @param orderFactors Distinct prime factors of 'order'
+     * @return Is 'g' a generator of the group?
+     */
+    static boolean isGenerator(final long g, final long modulus, final long order,
+            final long[] orderFactors) {
+        for (int i = 0; i < orderFactors.length; ++i) {
+            if (Algorithms.modPow(g, order / orderFactors[i], modulus) == 1)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param factors Prime factors in ascending order, possibly repeated
+     * @param extra Another prime factor, 0 for none
+     * @return Distinct factors in ascending order
+     */
+    private static long[] distinct(final long[] factors, final long extra) {
+        long[] result = new long[factors.length + 1];
+        int size = 0;
+        for (int i = 0; i < factors.length; ++i) {
+            if ((size == 0) || (result[size - 1] != factors[i]))
+                result[size++] = factors[i];
+        }
+        if ((extra != 0) && ((size == 0) || (result[size - 1] != extra)))
+            result[size++] = extra;
+        result = Arrays.copyOf(result, size);
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Utils;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
+import cz.muni.fi.Numbermat.RandomContext;
 
 /**
  * Solving Bezout's identity: finding d = gcd(a,b) and x, y such that ax + by = d.
@@ -40,7 +41,18 @@ public final class BezoutProblem extends MathProblem {
      * @param coprimeNumbers Require generating coprime a, b (Used by InverseModProblem)
      */
     public BezoutProblem(final String difficulty, final boolean coprimeNumbers) {
-        gcdProblem = new GCDProblem(difficulty, coprimeNumbers);
+        this(difficulty, coprimeNumbers, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param coprimeNumbers Require generating coprime a, b (Used by InverseModProblem)
+     * @param random Source of randomness
+     */
+    public BezoutProblem(final String difficulty, final boolean coprimeNumbers,
+            final RandomContext random) {
+        gcdProblem = new GCDProblem(difficulty, coprimeNumbers, random);
         setVariables();
     }
     
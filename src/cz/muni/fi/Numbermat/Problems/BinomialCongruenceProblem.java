@@ -22,6 +22,7 @@ import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.GUI.Config;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 
 /**
@@ -40,6 +41,15 @@ public final class BinomialCongruenceProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public BinomialCongruenceProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public BinomialCongruenceProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 11);
         mediumBounds = new Pair(9, 19);
         hardBounds = new Pair(2, 37);
@@ -48,14 +58,14 @@ public final class BinomialCongruenceProblem extends MathProblem {
         final int lowerBound = bounds.getFirst();
         final int upperBound = bounds.getSecond();
         
-        final int nn = Algorithms.randInt(3, 5);
+        final int nn = Algorithms.randInt(3, 5, random);
         int aa, mm;
         while (true) {
-            aa = Algorithms.randInt(lowerBound, upperBound);
+            aa = Algorithms.randInt(lowerBound, upperBound, random);
             if (difficulty.equals(Config.HARD))
-                mm = Algorithms.generateModulus(false); // 6 to 95
+                mm = Algorithms.generateModulus(false, random); // 6 to 95
             else
-                mm = Algorithms.randPrime(lowerBound, upperBound);
+                mm = Algorithms.randPrime(lowerBound, upperBound, random);
             if (!Algorithms.binomialCongruence(nn, aa, mm).isEmpty())
                 break;
         }
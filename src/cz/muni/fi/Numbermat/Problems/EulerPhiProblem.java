@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 
@@ -38,6 +39,15 @@ public final class EulerPhiProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public EulerPhiProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public EulerPhiProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(1, 99);
         mediumBounds = new Pair(100, 999);
         hardBounds = new Pair(1000, 2999);
@@ -46,7 +56,7 @@ public final class EulerPhiProblem extends MathProblem {
         final int lowerBound = bounds.getFirst();
         final int upperBound = bounds.getSecond();
         
-        final int nn = Algorithms.randInt(lowerBound, upperBound);
+        final int nn = Algorithms.randInt(lowerBound, upperBound, random);
         setVariables(nn);
     }
     
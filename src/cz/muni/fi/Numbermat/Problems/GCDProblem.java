@@ -22,6 +22,7 @@ import cz.muni.fi.Numbermat.Utils;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import java.util.ArrayList;
 
 /**
@@ -41,6 +42,17 @@ public final class GCDProblem extends MathProblem {
      * @param coprimeNumbers Require generating coprime a, b (Used by InverseModProblem)
      */
     public GCDProblem(final String difficulty, final boolean coprimeNumbers) {
+        this(difficulty, coprimeNumbers, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param coprimeNumbers Require generating coprime a, b (Used by InverseModProblem)
+     * @param random Source of randomness
+     */
+    public GCDProblem(final String difficulty, final boolean coprimeNumbers,
+            final RandomContext random) {
         easyBounds = new Pair(1, 127);
         mediumBounds = new Pair(128, 1023);
         hardBounds = new Pair(512, 4095);
@@ -52,12 +64,12 @@ public final class GCDProblem extends MathProblem {
         int aa, bb;
         if (coprimeNumbers) {
             final Pair<Integer, Integer> coprimes =
-                    Algorithms.randCoprime(lowerBound, upperBound);
+                    Algorithms.randCoprime(lowerBound, upperBound, random);
             aa = coprimes.getFirst();
             bb = coprimes.getSecond();
         } else {
-            aa = Algorithms.randInt(lowerBound, upperBound);
-            bb = Algorithms.randInt(lowerBound, upperBound);
+            aa = Algorithms.randInt(lowerBound, upperBound, random);
+            bb = Algorithms.randInt(lowerBound, upperBound, random);
         }
         setVariables(aa, bb);
     }
@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Utils;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
+import cz.muni.fi.Numbermat.RandomContext;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.util.List;
@@ -43,7 +44,16 @@ public final class InverseModProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public InverseModProblem(final String difficulty) {
-        bezoutProblem = new BezoutProblem(difficulty, true);
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public InverseModProblem(final String difficulty, final RandomContext random) {
+        bezoutProblem = new BezoutProblem(difficulty, true, random);
         setVariables();
     }
     
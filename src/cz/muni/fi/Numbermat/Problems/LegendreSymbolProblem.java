@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 
@@ -39,6 +40,15 @@ public final class LegendreSymbolProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public LegendreSymbolProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public LegendreSymbolProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 49);
         mediumBounds = new Pair(10, 79);
         hardBounds = new Pair(49, 119);
@@ -47,8 +57,8 @@ public final class LegendreSymbolProblem extends MathProblem {
         final int lowerBound = bounds.getFirst();
         final int upperBound = bounds.getSecond();
         
-        final int aa = Algorithms.randInt(lowerBound, upperBound);
-        final int pp = Algorithms.randPrime(lowerBound, upperBound);
+        final int aa = Algorithms.randInt(lowerBound, upperBound, random);
+        final int pp = Algorithms.randPrime(lowerBound, upperBound, random);
         setVariables(aa, pp);
     }
     
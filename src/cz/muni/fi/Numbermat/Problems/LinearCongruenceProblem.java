@@ -20,6 +20,7 @@ package cz.muni.fi.Numbermat.Problems;
 
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +40,15 @@ public final class LinearCongruenceProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public LinearCongruenceProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public LinearCongruenceProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(11, 50);
         mediumBounds = new Pair(50, 300);
         hardBounds = new Pair(300, 700);
@@ -49,9 +59,9 @@ public final class LinearCongruenceProblem extends MathProblem {
         
         int aa, bb, nn;
         while (true) {
-            aa = Algorithms.randInt(lowerBound, upperBound);
-            bb = Algorithms.randInt(lowerBound, upperBound);
-            nn = Algorithms.randInt(lowerBound, upperBound);
+            aa = Algorithms.randInt(lowerBound, upperBound, random);
+            bb = Algorithms.randInt(lowerBound, upperBound, random);
+            nn = Algorithms.randInt(lowerBound, upperBound, random);
             final Pair<Integer, Integer> solution =
                     Algorithms.linearCongruence(aa, bb, nn);
             if (!solution.isEmpty())
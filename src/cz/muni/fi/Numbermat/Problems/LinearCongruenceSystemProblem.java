@@ -22,6 +22,7 @@ import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.GUI.Config;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +46,15 @@ public final class LinearCongruenceSystemProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public LinearCongruenceSystemProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public LinearCongruenceSystemProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 15);
         mediumBounds = new Pair(15, 25);
         hardBounds = new Pair(10, 30);
@@ -63,11 +73,11 @@ public final class LinearCongruenceSystemProblem extends MathProblem {
             bList1 = new ArrayList<>(equationCount1);
             nList1 = new ArrayList<>(equationCount1);
             for (int i = 0; i < equationCount1; ++i) {
-                int aa = Algorithms.randInt(lowerBound, upperBound);
+                int aa = Algorithms.randInt(lowerBound, upperBound, random);
                 if (difficulty.equals(Config.EASY))
                     aa = 1;
-                int bb = Algorithms.randInt(lowerBound, upperBound);
-                int nn = Algorithms.randInt(lowerBound, upperBound);
+                int bb = Algorithms.randInt(lowerBound, upperBound, random);
+                int nn = Algorithms.randInt(lowerBound, upperBound, random);
                 aList1.add(aa);
                 bList1.add(bb);
                 nList1.add(nn);
@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 
@@ -40,6 +41,15 @@ public final class ModularPowerProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public ModularPowerProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public ModularPowerProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(5, 11);
         mediumBounds = new Pair(11, 37);
         hardBounds = new Pair(37, 97);
@@ -48,10 +58,10 @@ public final class ModularPowerProblem extends MathProblem {
         final int lowerBound = bounds.getFirst();
         final int upperBound = bounds.getSecond();
         
-        final int b = Algorithms.randInt(lowerBound, upperBound);
-        final int e = Algorithms.randInt(lowerBound, upperBound);
-        int m = Algorithms.randInt(lowerBound, upperBound);
-        if (Algorithms.randInt(1, 5) == 1)
+        final int b = Algorithms.randInt(lowerBound, upperBound, random);
+        final int e = Algorithms.randInt(lowerBound, upperBound, random);
+        int m = Algorithms.randInt(lowerBound, upperBound, random);
+        if (Algorithms.randInt(1, 5, random) == 1)
             m = 100;
         setVariables(b, e, m);
     }
@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +40,15 @@ public final class PermutationOrderProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public PermutationOrderProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public PermutationOrderProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 5);
         mediumBounds = new Pair(6, 8);
         hardBounds = new Pair(9, 9);
@@ -47,8 +57,8 @@ public final class PermutationOrderProblem extends MathProblem {
         final int lowerBound = bounds.getFirst();
         final int upperBound = bounds.getSecond();
         
-        final int size = Algorithms.randInt(lowerBound, upperBound);
-        final List<Integer> perm = Algorithms.randPermutation(size);
+        final int size = Algorithms.randInt(lowerBound, upperBound, random);
+        final List<Integer> perm = Algorithms.randPermutation(size, random);
         setVariables(perm);
     }
     
@@ -22,6 +22,7 @@ import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.GUI.Config;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 
 /**
@@ -41,6 +42,15 @@ public final class QuadraticCongruenceGeneralProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public QuadraticCongruenceGeneralProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public QuadraticCongruenceGeneralProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 19);
         mediumBounds = new Pair(11, 39);
         hardBounds = new Pair(11, 99);
@@ -51,13 +61,13 @@ public final class QuadraticCongruenceGeneralProblem extends MathProblem {
         
         int aa, bb, cc, mm;
         while (true) {
-            aa = Algorithms.randInt(lowerBound, upperBound);
-            bb = Algorithms.randInt(lowerBound, upperBound);
-            cc = Algorithms.randInt(lowerBound, upperBound);
+            aa = Algorithms.randInt(lowerBound, upperBound, random);
+            bb = Algorithms.randInt(lowerBound, upperBound, random);
+            cc = Algorithms.randInt(lowerBound, upperBound, random);
             if (difficulty.equals(Config.EASY))
-                mm = Algorithms.randPrime(lowerBound, upperBound);
+                mm = Algorithms.randPrime(lowerBound, upperBound, random);
             else
-                mm = Algorithms.generateModulus(true); // 15 to 95, odd
+                mm = Algorithms.generateModulus(true, random); // 15 to 95, odd
             if (!Algorithms.isCoprime(aa, mm))
                 continue;
             if (!Algorithms.quadraticCongruenceGeneral(aa, bb, cc, mm).isEmpty())
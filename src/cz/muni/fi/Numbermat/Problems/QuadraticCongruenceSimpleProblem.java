@@ -22,6 +22,7 @@ import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.GUI.Config;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 
 /**
@@ -40,6 +41,15 @@ public final class QuadraticCongruenceSimpleProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public QuadraticCongruenceSimpleProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public QuadraticCongruenceSimpleProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(2, 39);
         mediumBounds = new Pair(11, 99);
         hardBounds = new Pair(11, 199);
@@ -50,11 +60,11 @@ public final class QuadraticCongruenceSimpleProblem extends MathProblem {
         
         int aa, mm;
         while (true) {
-            aa = Algorithms.randInt(lowerBound, upperBound);
+            aa = Algorithms.randInt(lowerBound, upperBound, random);
             if (difficulty.equals(Config.EASY))
-                mm = Algorithms.randPrime(lowerBound, upperBound);
+                mm = Algorithms.randPrime(lowerBound, upperBound, random);
             else
-                mm = Algorithms.generateModulus(false); // 6 to 95
+                mm = Algorithms.generateModulus(false, random); // 6 to 95
             if (!Algorithms.quadraticCongruenceSimple(aa, mm).isEmpty())
                 break;
         }
@@ -21,6 +21,7 @@ package cz.muni.fi.Numbermat.Problems;
 import cz.muni.fi.Numbermat.Algorithms;
 import cz.muni.fi.Numbermat.AlgorithmsSteps;
 import cz.muni.fi.Numbermat.Pair;
+import cz.muni.fi.Numbermat.RandomContext;
 import cz.muni.fi.Numbermat.Utils;
 import java.util.ArrayList;
 
@@ -39,6 +40,15 @@ public final class UnitGroupElementOrderProblem extends MathProblem {
      * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
      */
     public UnitGroupElementOrderProblem(final String difficulty) {
+        this(difficulty, RandomContext.current());
+    }
+    
+    /**
+     * Instantiate with pseudo-randomly generated parameters.
+     * @param difficulty One of Config.EASY, Config.MEDIUM, Config.HARD
+     * @param random Source of randomness
+     */
+    public UnitGroupElementOrderProblem(final String difficulty, final RandomContext random) {
         easyBounds = new Pair(5, 11);
         mediumBounds = new Pair(11, 37);
         hardBounds = new Pair(37, 97);
@@ -50,8 +60,8 @@ public final class UnitGroupElementOrderProblem extends MathProblem {
         int element1 = 0;
         int n1 = 0;
         while ((!Algorithms.isCoprime(element1, n1)) || (element1 > n1)) {
-            element1 = Algorithms.randInt(2, 9);
-            n1 = Algorithms.randInt(lowerBound, upperBound);
+            element1 = Algorithms.randInt(2, 9, random);
+            n1 = Algorithms.randInt(lowerBound, upperBound, random);
         }
         setVariables(element1, n1);
     }
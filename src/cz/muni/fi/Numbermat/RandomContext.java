@@ -0,0 +1,181 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeded, splittable source of pseudo-random numbers for Algorithms.rand*
+ * and problem generation. SplitMix64 generator (Steele, Lea, Flood: Fast
+ * splittable pseudorandom number generators, OOPSLA 2014), the same algorithm
+ * as java.util.SplittableRandom. Equal seeds give equal sequences, split()
+ * derives an independent generator for another thread.
+ * An instance is not thread-safe: every worker should use its own split()
+ * (or the per-thread instance returned by current()). Drawing numbers
+ * does not allocate.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class RandomContext extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Odd constant close to 2^64 / golden ratio, the default gamma.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Seeds of the unseeded instances.
+     */
+    private static final AtomicLong DEFAULT_SEEDS = new AtomicLong(
+            mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    private static final ThreadLocal<RandomContext> CURRENT = new ThreadLocal<RandomContext>() {
+        @Override
+        protected RandomContext initialValue() {
+            return new RandomContext();
+        }
+    };
+
+    private long state;
+    private long gamma;
+
+    /**
+     * Instantiate with a seed unique to this instance.
+     */
+    public RandomContext() {
+        this(0, GOLDEN_GAMMA);
+        final long seed = DEFAULT_SEEDS.getAndAdd(2 * GOLDEN_GAMMA);
+        state = mix64(seed);
+        gamma = mixGamma(seed + GOLDEN_GAMMA);
+    }
+
+    /**
+     * Instantiate with a fixed seed, the sequence of numbers is reproducible.
+     * @param seed Long integer
+     */
+    public RandomContext(final long seed) {
+        super(seed);
+        setSeed(seed);
+    }
+
+    private RandomContext(final long state, final long gamma) {
+        super(state);
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return Context of the calling thread, used by methods without
+     *         an explicit context
+     */
+    public static RandomContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Restarts the sequence as if this instance was created with 'seed'.
+     * @param seed Long integer
+     */
+    @Override
+    public void setSeed(final long seed) {
+        super.setSeed(seed); // clears the cached Gaussian
+        state = seed;
+        gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Derives a new generator. Its sequence is independent of this one,
+     * which advances by one step.
+     * @return New context for another worker
+     */
+    public RandomContext split() {
+        return new RandomContext(nextLong(), mixGamma(nextState()));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextState());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextState());
+    }
+
+    /**
+     * @param bound Positive integer
+     * @return Uniformly distributed integer in range [0, bound)
+     */
+    @Override
+    public int nextInt(final int bound) {
+        Algorithms.positiveCheck(bound);
+        int r = mix32(nextState());
+        final int m = bound - 1;
+        if ((bound & m) == 0)
+            return r & m;
+        // Reject the incomplete last block of 'bound' values
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextState()) >>> 1);
+        return r;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return mix32(nextState()) < 0;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    protected int next(final int bits) {
+        return (int)(nextLong() >>> (64 - bits));
+    }
+
+    private long nextState() {
+        return state += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int)(((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    /**
+     * @param z Long integer
+     * @return Odd gamma with enough bit transitions to avoid weak sequences
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        final int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
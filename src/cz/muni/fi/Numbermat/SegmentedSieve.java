@@ -0,0 +1,292 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Segmented sieve of Eratosthenes for ranges [lo, hi) far beyond the prime table,
+ * e.g. primes near 10^12. Base primes up to sqrt(hi) come from PrimeSieve,
+ * the range is cut into segments of SEGMENT_SIZE integers (odd numbers only,
+ * 16 kB of bits each) which are sieved in parallel on the WorkerPool.
+ * Results are handed out per segment, so memory does not grow with the range.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class SegmentedSieve {
+
+    private SegmentedSieve() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Number of integers in one segment.
+     */
+    public static final int SEGMENT_SIZE = 1 << 18;
+
+    /**
+     * Upper bound of ranges, base primes must fit into the prime table.
+     */
+    public static final long MAX_HIGH = (long)PrimeSieve.MAX_LIMIT * PrimeSieve.MAX_LIMIT;
+
+    /**
+     * Receives sieved segments. Called concurrently from worker threads,
+     * segments arrive in no particular order.
+     */
+    public interface Visitor {
+
+        /**
+         * @param segment Sieved segment, may be kept by the visitor
+         */
+        void visit(Segment segment);
+    }
+
+    /**
+     * Primes in [low, high) stored as a bitset over odd numbers.
+     */
+    public static final class Segment {
+
+        private final long low;
+        private final long high;
+        private final long first;   // smallest odd number >= low
+        private final int size;     // number of odd numbers in the segment
+        private final long[] words; // bit j set <=> first + 2j is prime
+
+        private Segment(final long low, final long high, final int[] basePrimes) {
+            this.low = low;
+            this.high = high;
+            this.first = low | 1;
+            this.size = (high > first) ? (int)((high - first + 1) / 2) : 0;
+            this.words = new long[(size + 63) >>> 6];
+            Arrays.fill(words, -1L);
+            if ((size & 63) != 0)
+                words[words.length - 1] = (1L << size) - 1;
+            if ((first == 1) && (size > 0))
+                words[0] &= ~1L; // 1 is not a prime
+
+            // Cross out odd multiples of odd base primes, starting at p^2
+            for (int i = 1; i < basePrimes.length; ++i) {
+                final long p = basePrimes[i];
+                if (p * p >= high)
+                    break;
+                long start = Math.max(p * p, (first + p - 1) / p * p);
+                if ((start & 1) == 0)
+                    start += p;
+                for (long j = (start - first) >>> 1; j < size; j += p)
+                    words[(int)(j >>> 6)] &= ~(1L << j);
+            }
+        }
+
+        /**
+         * @return Lowest integer of the segment (inclusive)
+         */
+        public long getLow() {
+            return low;
+        }
+
+        /**
+         * @return Upper bound of the segment (exclusive)
+         */
+        public long getHigh() {
+            return high;
+        }
+
+        /**
+         * @param n Long integer in [getLow(), getHigh())
+         * @return Is 'n' prime?
+         */
+        public boolean isPrime(final long n) {
+            Algorithms.notLessThanCheck(n, low);
+            Algorithms.notGreaterThanCheck(n, high - 1);
+            if ((n & 1) == 0)
+                return n == 2;
+            final long j = (n - first) >>> 1;
+            return (words[(int)(j >>> 6)] & (1L << j)) != 0;
+        }
+
+        /**
+         * @return Number of primes in the segment
+         */
+        public int count() {
+            int count = containsTwo() ? 1 : 0;
+            for (int i = 0; i < words.length; ++i)
+                count += Long.bitCount(words[i]);
+            return count;
+        }
+
+        /**
+         * @return Primes of the segment in ascending order
+         */
+        public long[] primes() {
+            final long[] primes = new long[count()];
+            int count = 0;
+            if (containsTwo())
+                primes[count++] = 2;
+            for (int i = 0; i < words.length; ++i) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    final int j = (i << 6) + Long.numberOfTrailingZeros(word);
+                    primes[count++] = first + 2L * j;
+                }
+            }
+            return primes;
+        }
+
+        /**
+         * @return Bitset with bit i set iff getLow() + i is prime
+         */
+        public BitSet toBitSet() {
+            final BitSet result = new BitSet((int)(high - low));
+            final long[] primes = primes();
+            for (int i = 0; i < primes.length; ++i)
+                result.set((int)(primes[i] - low));
+            return result;
+        }
+
+        private boolean containsTwo() {
+            return (low <= 2) && (high > 2);
+        }
+    }
+
+    /**
+     * Sieves [lo, hi) segment by segment, in parallel if there are more of them.
+     * @param lo Non-negative long integer
+     * @param hi Long integer >= lo, at most MAX_HIGH
+     * @param visitor Receives every segment exactly once
+     */
+    public static void forEachSegment(final long lo, final long hi, final Visitor visitor) {
+        Algorithms.notNegativeCheck(lo);
+        Algorithms.notLessThanCheck(hi, lo);
+        Algorithms.notGreaterThanCheck(hi, MAX_HIGH);
+        if (lo == hi)
+            return;
+
+        final int[] basePrimes = PrimeSieve.primesUpTo((int)floorSqrt(hi - 1));
+        final long segments = (hi - lo + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        final SieveTask task = new SieveTask(lo, hi, 0, segments, basePrimes, visitor);
+        if (segments == 1)
+            task.compute();
+        else
+            WorkerPool.POOL.invoke(task);
+    }
+
+    /**
+     * @param lo Non-negative long integer
+     * @param hi Long integer >= lo, at most MAX_HIGH
+     * @return Number of primes in [lo, hi)
+     */
+    public static long count(final long lo, final long hi) {
+        final AtomicLong count = new AtomicLong();
+        forEachSegment(lo, hi, new Visitor() {
+            @Override
+            public void visit(final Segment segment) {
+                count.addAndGet(segment.count());
+            }
+        });
+        return count.get();
+    }
+
+    /**
+     * @param lo Non-negative long integer
+     * @param hi Long integer >= lo, at most MAX_HIGH
+     * @return Primes in [lo, hi) in ascending order
+     * @throws RuntimeException If there are too many primes for an array
+     */
+    public static long[] primes(final long lo, final long hi) {
+        Algorithms.notNegativeCheck(lo);
+        Algorithms.notLessThanCheck(hi, lo);
+        final long segments = (hi - lo + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        if (segments > Integer.MAX_VALUE)
+            throw new RuntimeException("Overflow occured");
+
+        final long[][] parts = new long[(int)segments][];
+        forEachSegment(lo, hi, new Visitor() {
+            @Override
+            public void visit(final Segment segment) {
+                parts[(int)((segment.getLow() - lo) / SEGMENT_SIZE)] = segment.primes();
+            }
+        });
+        long total = 0;
+        for (int i = 0; i < parts.length; ++i)
+            total += parts[i].length;
+        if (total > Integer.MAX_VALUE - 8)
+            throw new RuntimeException("Overflow occured");
+
+        final long[] result = new long[(int)total];
+        int offset = 0;
+        for (int i = 0; i < parts.length; ++i) {
+            System.arraycopy(parts[i], 0, result, offset, parts[i].length);
+            offset += parts[i].length;
+        }
+        return result;
+    }
+
+    /**
+     * Splits a run of segments in halves down to single segments.
+     */
+    private static final class SieveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long lo;
+        private final long hi;
+        private final long fromSegment;
+        private final long toSegment;
+        private final int[] basePrimes;
+        private final Visitor visitor;
+
+        private SieveTask(final long lo, final long hi, final long fromSegment,
+                final long toSegment, final int[] basePrimes, final Visitor visitor) {
+            this.lo = lo;
+            this.hi = hi;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+            this.basePrimes = basePrimes;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSegment - fromSegment == 1) {
+                final long low = lo + fromSegment * SEGMENT_SIZE;
+                visitor.visit(new Segment(low, Math.min(hi, low + SEGMENT_SIZE), basePrimes));
+                return;
+            }
+            final long middle = (fromSegment + toSegment) >>> 1;
+            invokeAll(new SieveTask(lo, hi, fromSegment, middle, basePrimes, visitor),
+                    new SieveTask(lo, hi, middle, toSegment, basePrimes, visitor));
+        }
+    }
+
+    /**
+     * @param n Non-negative long integer
+     * @return Largest r such that r^2 <= n
+     */
+    private static long floorSqrt(final long n) {
+        long r = (long)Math.sqrt((double)n);
+        while (r * r > n)
+            --r;
+        while ((r + 1) * (r + 1) <= n)
+            ++r;
+        return r;
+    }
+}
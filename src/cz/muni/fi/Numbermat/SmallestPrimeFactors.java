@@ -0,0 +1,130 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+/**
+ * Table of smallest prime factors of all integers up to LIMIT, computed
+ * by the linear sieve. Any n in range is factorized by repeated lookups
+ * in O(log n) steps without a single trial division.
+ * The table is built once per JVM on first use (holder class idiom),
+ * after that it is read-only and safe to share between threads.
+ *
+ * @author agent <agent(at)local>
+ */
+final class SmallestPrimeFactors {
+
+    private SmallestPrimeFactors() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    /**
+     * Highest integer covered by the table (covers Config.MAX_INT).
+     */
+    static final int LIMIT = 1 << 20;
+
+    private static final class Holder {
+        private static final int[] SPF = sieve(LIMIT);
+    }
+
+    /**
+     * Linear sieve: every composite is crossed out exactly once,
+     * by its smallest prime factor.
+     */
+    private static int[] sieve(final int limit) {
+        final int[] spf = new int[limit + 1];
+        final int[] primes = new int[limit / 2 + 1];
+        int primeCount = 0;
+        for (int i = 2; i <= limit; ++i) {
+            if (spf[i] == 0) {
+                spf[i] = i;
+                primes[primeCount++] = i;
+            }
+            for (int j = 0; j < primeCount; ++j) {
+                final int p = primes[j];
+                if ((p > spf[i]) || ((long)i * p > limit))
+                    break;
+                spf[i * p] = p;
+            }
+        }
+        return spf;
+    }
+
+    /**
+     * @param n Integer in range [2, LIMIT]
+     * @return Smallest prime factor of 'n'
+     */
+    static int smallestPrimeFactor(final int n) {
+        return Holder.SPF[n];
+    }
+
+    /**
+     * @param n Integer in range [2, LIMIT]
+     * @return Prime factors of 'n' with multiplicity in ascending order
+     */
+    static long[] primeFactors(int n) {
+        final int[] spf = Holder.SPF;
+        final long[] buffer = new long[Integer.SIZE];
+        int count = 0;
+        while (n > 1) {
+            final int p = spf[n];
+            buffer[count++] = p;
+            n /= p;
+        }
+        final long[] factors = new long[count];
+        System.arraycopy(buffer, 0, factors, 0, count);
+        return factors;
+    }
+
+    /**
+     * @param n Integer in range [1, LIMIT]
+     * @return Euler's totient function of 'n'
+     */
+    static int eulerPhi(int n) {
+        final int[] spf = Holder.SPF;
+        int phi = 1;
+        while (n > 1) {
+            final int p = spf[n];
+            n /= p;
+            phi *= p - 1;
+            while (n % p == 0) {
+                n /= p;
+                phi *= p;
+            }
+        }
+        return phi;
+    }
+
+    /**
+     * @param n Integer in range [2, LIMIT]
+     * @return Is 'n' of form p^k or 2*p^k for an odd prime p?
+     */
+    static boolean isOddPrimePowerOrDouble(int n) {
+        if (n % 2 == 0)
+            n /= 2;
+        if (n == 1)
+            return false;
+        final int p = Holder.SPF[n];
+        if (p == 2)
+            return false;
+        while (n % p == 0)
+            n /= p;
+        return n == 1;
+    }
+}
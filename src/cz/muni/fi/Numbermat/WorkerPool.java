@@ -0,0 +1,39 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fork-join pool shared by the parallel algorithms of the package
+ * (ChineseRemainder, SegmentedSieve), so there is one set of worker threads
+ * per JVM. The pool is created on first use, its threads are daemons
+ * and do not keep the application alive.
+ *
+ * @author agent <agent(at)local>
+ */
+final class WorkerPool {
+
+    private WorkerPool() {
+        throw new IllegalStateException(this.getClass().getName() +
+                " class should not be instantiated.");
+    }
+
+    static final ForkJoinPool POOL = new ForkJoinPool();
+}
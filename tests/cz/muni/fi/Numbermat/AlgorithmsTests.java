@@ -18,10 +18,12 @@
 
 package cz.muni.fi.Numbermat;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import org.junit.*;
 import static org.junit.Assert.*;
@@ -68,6 +70,110 @@ public final class AlgorithmsTests {
             assertFalse(Algorithms.isPrime(i));
     }
     
+    @Test
+    public void testIsPrimeSieve() {
+        // Compare the sieve with trial division, including the table boundary
+        for (int n = -10; n < 100000; ++n)
+            assertEquals(isPrimeTrialDivision(n), Algorithms.isPrime(n));
+        final int limit = PrimeSieve.INITIAL_LIMIT;
+        for (int n = limit - 1000; n < limit + 1000; ++n)
+            assertEquals(isPrimeTrialDivision(n), Algorithms.isPrime(n));
+        
+        assertTrue(PrimeSieve.nextPrime(-5) == 2);
+        assertTrue(PrimeSieve.nextPrime(90) == 97);
+        assertTrue(PrimeSieve.nextPrime(97) == 97);
+        assertTrue(PrimeSieve.previousPrime(96) == 89);
+        assertTrue(PrimeSieve.previousPrime(1) == -1);
+        assertTrue(PrimeSieve.nextPrime(999984) == 1000003);
+    }
+    
+    private boolean isPrimeTrialDivision(final int n) {
+        if (n < 2)
+            return false;
+        for (int i = 2; (long)i * i <= n; ++i) {
+            if (n % i == 0)
+                return false;
+        }
+        return true;
+    }
+    
+    @Test
+    public void testPrimeCount() {
+        int count = 0;
+        for (int n = -5; n < 100000; ++n) {
+            if (Algorithms.isPrime(n)) {
+                ++count;
+                assertEquals(n, PrimeSieve.nthPrime(count));
+            }
+            assertEquals(count, PrimeSieve.primeCount(n));
+        }
+        assertEquals(78498, PrimeSieve.primeCount(1000000));
+        assertEquals(1000003, PrimeSieve.nthPrime(78499));
+        assertEquals(7603553, PrimeSieve.primeCount(PrimeSieve.MAX_LIMIT));
+        assertEquals(PrimeSieve.previousPrime(PrimeSieve.MAX_LIMIT), PrimeSieve.nthPrime(7603553));
+        try {
+            PrimeSieve.nthPrime(7603554);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testIsPrimeLong() {
+        final long[] bigPrimes = new long[] {2147483647L, 4294967291L,
+            1000000007L, 999999999989L, 2305843009213693951L, 9223372036854775783L};
+        final long[] nonPrimes = new long[] {-7, 0, 1, 561, 3215031751L, 4759123141L,
+            1000000016000000063L, 3825123056546413051L, 9223372036854775807L,
+            4611686014132420609L}; // the last one is (2^31 - 1)^2
+        
+        for (int i = 0; i < bigPrimes.length; ++i)
+            assertTrue(Algorithms.isPrime(bigPrimes[i]));
+        for (int i = 0; i < nonPrimes.length; ++i)
+            assertFalse(Algorithms.isPrime(nonPrimes[i]));
+        
+        // Miller-Rabin above the sieve agrees with trial division
+        for (long n = Integer.MAX_VALUE - 2000L; n <= Integer.MAX_VALUE; ++n)
+            assertEquals(isPrimeTrialDivision((int)n), Algorithms.isPrime((int)n));
+        for (long n = 4294967296L; n < 4294967296L + 2000; ++n)
+            assertEquals(isPrimeTrialDivisionLong(n), Algorithms.isPrime(n));
+    }
+    
+    @Test
+    public void testMulMod() {
+        final long[] values = new long[] {0, 1, 2, 3037000499L, 3037000500L,
+            4294967296L, 999999999989L, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        for (int i = 0; i < values.length; ++i) {
+            for (int j = 0; j < values.length; ++j) {
+                for (int k = 1; k < values.length; ++k) {
+                    final BigInteger expected = BigInteger.valueOf(values[i])
+                            .multiply(BigInteger.valueOf(values[j]))
+                            .mod(BigInteger.valueOf(values[k]));
+                    assertEquals(expected.longValue(),
+                            Algorithms.mulMod(values[i], values[j], values[k]));
+                }
+            }
+        }
+        
+        // 128-bit reduction for moduli of every bit length
+        final Random random = new Random(63);
+        for (int i = 0; i < 100000; ++i) {
+            final long m = Math.max(1, (random.nextLong() >>> 1) >>> random.nextInt(63));
+            final long a = random.nextLong() >>> 1;
+            final long b = random.nextLong() >>> 1;
+            assertEquals(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                    .mod(BigInteger.valueOf(m)).longValue(), Algorithms.mulMod(a, b, m));
+        }
+    }
+    
+    private boolean isPrimeTrialDivisionLong(final long n) {
+        if (n < 2)
+            return false;
+        for (long i = 2; i * i <= n; ++i) {
+            if (n % i == 0)
+                return false;
+        }
+        return true;
+    }
+    
     @Test
     public void testIsCoprime() {
         assertTrue(Algorithms.isCoprime(1, 3458));
@@ -158,6 +264,26 @@ public final class AlgorithmsTests {
             final int p = Algorithms.randPrime(0, 10000);
             assertTrue(Algorithms.isPrime(p));
         }
+        assertTrue(Algorithms.randPrime(2, 3, true) == 3);
+        
+        // Every prime is equally likely, 113 follows the longest gap below 128
+        final int[] hits = new int[128];
+        for (int i = 0; i < 31000; ++i)
+            ++hits[Algorithms.randPrime(0, 127)];
+        for (int p = 0; p < hits.length; ++p) {
+            if (Algorithms.isPrime(p))
+                assertTrue(Math.abs(hits[p] - 1000) < 200);
+            else
+                assertEquals(0, hits[p]);
+        }
+        
+        // Above the sieve: narrow ranges are listed, wide ones sampled
+        final int narrow = Algorithms.randPrime(Integer.MAX_VALUE - 20, Integer.MAX_VALUE);
+        assertTrue((narrow == 2147483629) || (narrow == Integer.MAX_VALUE));
+        for (int i = 0; i < 100; ++i) {
+            final int p = Algorithms.randPrime(1 << 30, Integer.MAX_VALUE, true);
+            assertTrue((p >= 1 << 30) && (Algorithms.isPrime(p)));
+        }
     }
     
     @Test
@@ -167,6 +293,7 @@ public final class AlgorithmsTests {
         testRandPrimeFail(0, 0);    // Max bound is smaller than 2
         testRandPrimeFail(4, 4);    // No primes exist here
         testRandPrimeFail(954, 966);// And here
+        testRandPrimeFail(Integer.MAX_VALUE - 17, Integer.MAX_VALUE - 1);
     }
     
     private void testRandPrimeFail(final int a, final int b) {
@@ -225,6 +352,52 @@ public final class AlgorithmsTests {
         assertTrue(Algorithms.gcd(-b, -a) == gcd);
     }
     
+    @Test
+    public void testGCDArray() {
+        final Random random = new Random(20);
+        final int[] a = new int[2000];
+        final int[] b = new int[a.length];
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = (i % 3 == 0) ? random.nextInt() : random.nextInt(1000) - 500;
+            b[i] = (i % 5 == 0) ? a[i] * (random.nextInt(7) - 3) : random.nextInt();
+        }
+        a[0] = Integer.MIN_VALUE;
+        b[1] = 0;
+        a[2] = 0;
+        b[2] = 0;
+        final int[] out = new int[a.length];
+        Algorithms.gcd(a, b, out);
+        for (int i = 0; i < a.length; ++i)
+            assertEquals(Algorithms.gcd(a[i], b[i]), out[i]);
+        
+        final int[] expected = Arrays.copyOf(out, out.length);
+        Algorithms.gcd(a, b, a);
+        assertArrayEquals(expected, a);
+        try {
+            Algorithms.gcd(a, new int[1], out);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testGCDLong() {
+        assertTrue(Algorithms.gcd(0L, 0L) == 0);
+        assertTrue(Algorithms.gcd(-12L, 0L) == 12);
+        assertTrue(Algorithms.gcd(9223371873002223329L, 3037000493L * 7) == 3037000493L);
+        assertTrue(Algorithms.gcd(1L << 62, 3L << 40) == 1L << 40);
+        assertTrue(Algorithms.gcd(Long.MIN_VALUE, 6L) == 2);
+        assertTrue(Algorithms.gcd(Integer.MIN_VALUE, 6) == 2);
+        assertTrue(Algorithms.gcd(Integer.MIN_VALUE, Integer.MIN_VALUE) == Integer.MIN_VALUE);
+        
+        for (int a = -50; a <= 50; ++a) {
+            for (int b = -50; b <= 50; ++b) {
+                final int expected = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).intValue();
+                assertTrue(Algorithms.gcd(a, b) == expected);
+                assertTrue(Algorithms.gcd((long)a, (long)b) == expected);
+            }
+        }
+    }
+    
     @Test
     public void testLCM() {
         assertTrue(Algorithms.lcm(1, 1) == 1);
@@ -242,6 +415,10 @@ public final class AlgorithmsTests {
         testLCMFail(-4, 1);
         testLCMFail(4, -1);
         testLCMFail(-5, -2);
+        try {
+            Algorithms.lcm(46349, 46351);
+            fail();
+        } catch (RuntimeException ex) {}
     }
     
     private void testLCMFail(final int a, final int b) {
@@ -267,6 +444,29 @@ public final class AlgorithmsTests {
         assertEquals(result, Arrays.asList(gcd, x, y));
     }
     
+    @Test
+    public void testExtendedGcd() {
+        final long[] result = new long[3];
+        Algorithms.extendedGcd(98, 21, result);
+        assertTrue(Arrays.equals(result, new long[] {7, -1, 5}));
+        Algorithms.extendedGcd(21, 98, result);
+        assertTrue(Arrays.equals(result, new long[] {7, 5, -1}));
+        
+        final long a = 9223371873002223329L;
+        final long b = 3037000493L * 1000003;
+        Algorithms.extendedGcd(a, b, result);
+        assertTrue(result[0] == 3037000493L);
+        assertEquals(BigInteger.valueOf(a).multiply(BigInteger.valueOf(result[1]))
+                .add(BigInteger.valueOf(b).multiply(BigInteger.valueOf(result[2]))),
+                BigInteger.valueOf(result[0]));
+        assertTrue(Algorithms.bezoutCoefficient(a, b) == result[1]);
+        
+        try {
+            Algorithms.extendedGcd(-1, 5, result);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
     @Test
     public void testBezoutFail() {
         testBezoutFail(15, -15);
@@ -291,6 +491,39 @@ public final class AlgorithmsTests {
                 93, 124, 186, 248, 372, 744));
     }
     
+    @Test
+    public void testDivisorArray() {
+        assertTrue(Arrays.equals(Algorithms.divisorArray(1), new int[] {1}));
+        assertTrue(Arrays.equals(Algorithms.divisorArray(-28), new int[] {1, 2, 4, 7, 14, 28}));
+        assertTrue(Arrays.equals(Algorithms.divisorArray(720720, 13),
+                new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13}));
+        assertTrue(Arrays.equals(Algorithms.divisorArray(999983, 13), new int[] {1}));
+        assertTrue(Arrays.equals(Algorithms.divisorArray(Integer.MIN_VALUE, 16),
+                new int[] {1, 2, 4, 8, 16}));
+        assertTrue(Algorithms.divisorArray(Integer.MIN_VALUE).length == 31);
+        assertTrue(Algorithms.divisorArray(735134400).length == 1344);
+        
+        for (int n = 1; n < 2000; ++n) {
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 1; i <= n; ++i) {
+                if (n % i == 0)
+                    expected.add(i);
+            }
+            testDivisors(n, expected);
+        }
+    }
+    
+    @Test
+    public void testCommonDivisorArray() {
+        assertTrue(Arrays.equals(Algorithms.commonDivisorArray(100, -10), new int[] {1, 2, 5, 10}));
+        assertTrue(Arrays.equals(Algorithms.commonDivisorArray(360, 840, 13),
+                new int[] {1, 2, 3, 4, 5, 6, 8, 10, 12}));
+        try {
+            Algorithms.divisorArray(10, 0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
     private void testDivisors(final int n, final List<Integer> expected) {
         assertEquals(Algorithms.divisors(n), expected);
     }
@@ -348,6 +581,17 @@ public final class AlgorithmsTests {
         factors.add(new Pair<>(19, 1));
         assertEquals(factors, Algorithms.factorize(n));
         
+        n = Integer.MAX_VALUE; // Mersenne prime
+        factors = new ArrayList<>();
+        factors.add(new Pair<>(n, 1));
+        assertEquals(factors, Algorithms.factorize(n));
+        
+        n = 999958; // 2 * 499979
+        factors = new ArrayList<>();
+        factors.add(new Pair<>(2, 1));
+        factors.add(new Pair<>(499979, 1));
+        assertEquals(factors, Algorithms.factorize(n));
+        
         n = 1;
         factors = new ArrayList<>();
         factors.add(new Pair<>(1, 1));
@@ -359,6 +603,42 @@ public final class AlgorithmsTests {
         assertEquals(factors, Algorithms.factorize(n));
     }
     
+    @Test
+    public void testFactorizeLong() {
+        testFactorizeLong(1000000016000000063L, 1000000007L, 1, 1000000009L, 1);
+        testFactorizeLong(3825123056546413051L, 149491L, 1, 747451L, 1, 34233211L, 1);
+        testFactorizeLong(600851475143L, 71L, 1, 839L, 1, 1471L, 1, 6857L, 1);
+        testFactorizeLong(9223372036854775783L, 9223372036854775783L, 1);
+        testFactorizeLong(9223371873002223329L, 3037000453L, 1, 3037000493L, 1);
+        testFactorizeLong(1L << 62, 2L, 62);
+        testFactorizeLong(4611686014132420609L, 2147483647L, 2);
+        testFactorizeLong(2L, 2L, 1);
+        testFactorizeLong(0L, 0L, 1);
+        
+        // Products of factors must give back the original number
+        for (int n = 4; n < 20000; ++n) {
+            long product = 1;
+            int previous = 1;
+            for (Pair<Integer, Integer> factor : Algorithms.factorize(n)) {
+                final int prime = factor.getFirst();
+                assertTrue(Algorithms.isPrime(prime));
+                assertTrue(prime > previous);
+                previous = prime;
+                for (int i = 0; i < factor.getSecond(); ++i)
+                    product *= prime;
+            }
+            assertEquals(n, product);
+        }
+    }
+    
+    // Factors given as (prime, exponent) sequence
+    private void testFactorizeLong(final long n, final long... factors) {
+        final List<Pair<Long, Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < factors.length; i += 2)
+            expected.add(new Pair<>(factors[i], (int)factors[i + 1]));
+        assertEquals(expected, Algorithms.factorize(n));
+    }
+    
     @Test
     public void testFactorizeFail() {
         try {
@@ -380,6 +660,21 @@ public final class AlgorithmsTests {
         assertTrue(Algorithms.eulerPhi(2010) == 528);
         assertTrue(Algorithms.eulerPhi(3458) == 1296);
         assertTrue(Algorithms.eulerPhi(4864) == 2304);
+        assertTrue(Algorithms.eulerPhi(999983) == 999982);
+        assertTrue(Algorithms.eulerPhi(1 << 20) == 1 << 19);
+        assertTrue(Algorithms.eulerPhi((1 << 20) + 1) == 986880); // 17 * 61681
+        assertTrue(Algorithms.eulerPhi(Integer.MAX_VALUE) == Integer.MAX_VALUE - 1);
+        assertTrue(Algorithms.eulerPhi(46340 * 46340) == 46340 * 15840);
+        assertTrue(Algorithms.eulerPhi(1 << 30) == 1 << 29);
+        
+        for (int n = 1; n < 1000; ++n) {
+            int expected = 0;
+            for (int i = 1; i <= n; ++i) {
+                if (Algorithms.isCoprime(i, n))
+                    ++expected;
+            }
+            assertTrue(Algorithms.eulerPhi(n) == expected);
+        }
     }
     
     @Test
@@ -395,6 +690,55 @@ public final class AlgorithmsTests {
         } catch (IllegalArgumentException ex) {}
     }
     
+    @Test
+    public void testEulerPhiRange() {
+        final int[][] ranges = new int[][] {{1, 1}, {1, 5000}, {99990, 100010},
+            {SmallestPrimeFactors.LIMIT - 40000, SmallestPrimeFactors.LIMIT + 40000},
+            {Integer.MAX_VALUE - 3000, Integer.MAX_VALUE}};
+        for (int r = 0; r < ranges.length; ++r) {
+            final int lo = ranges[r][0];
+            final int[] phi = Algorithms.eulerPhiRange(lo, ranges[r][1]);
+            assertEquals(ranges[r][1] - lo + 1, phi.length);
+            for (int i = 0; i < phi.length; ++i)
+                assertEquals(Algorithms.eulerPhi(lo + i), phi[i]);
+        }
+    }
+    
+    @Test
+    public void testMoebiusRange() {
+        final int[][] ranges = new int[][] {{1, 5000}, {Integer.MAX_VALUE - 3000, Integer.MAX_VALUE}};
+        for (int r = 0; r < ranges.length; ++r) {
+            final int lo = ranges[r][0];
+            final int[] mu = Algorithms.moebiusRange(lo, ranges[r][1]);
+            for (int i = 0; i < mu.length; ++i) {
+                int expected = 1;
+                final List<Pair<Integer, Integer>> factors = Algorithms.factorize(lo + i);
+                for (int j = 0; j < factors.size(); ++j)
+                    expected = (factors.get(j).getSecond() > 1) ? 0 : -expected;
+                if (lo + i == 1)
+                    expected = 1;
+                assertEquals(expected, mu[i]);
+            }
+        }
+        assertArrayEquals(new int[] {1, -1, -1, 0, -1, 1, -1, 0, 0, 1},
+                Algorithms.moebiusRange(1, 10));
+    }
+    
+    @Test
+    public void testRangeFail() {
+        final int[][] invalid = new int[][] {{0, 5}, {-3, 5}, {5, 4}};
+        for (int i = 0; i < invalid.length; ++i) {
+            try {
+                Algorithms.eulerPhiRange(invalid[i][0], invalid[i][1]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+            try {
+                Algorithms.moebiusRange(invalid[i][0], invalid[i][1]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+    
     @Test
     public void testNormalizeIntModulo() {
         assertTrue(Algorithms.normalizeIntModulo(8, 3) == 2);
@@ -409,6 +753,20 @@ public final class AlgorithmsTests {
         testNormalizeIntModuloFail(7, 0);
     }
     
+    @Test
+    public void testNormalizeIntModuloArray() {
+        final int[] a = new int[] {8, -8, 2, -2, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -15};
+        final int[] expected = new int[a.length];
+        for (int i = 0; i < a.length; ++i)
+            expected[i] = Algorithms.normalizeIntModulo(a[i], 5);
+        Algorithms.normalizeIntModulo(a, 5);
+        assertArrayEquals(expected, a);
+        try {
+            Algorithms.normalizeIntModulo(a, 0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
     private void testNormalizeIntModuloFail(final int a, final int b) {
         try {
             Algorithms.normalizeIntModulo(a, b);
@@ -429,6 +787,8 @@ public final class AlgorithmsTests {
         testLinearCongruence(12, 20, 28, new Pair<>(4, 7));
         testLinearCongruence(642, 1844, 1144, new Pair<>(10, 572));
         testLinearCongruence(11881376, 16, 11, new Pair<>(5, 11));
+        testLinearCongruence(123457, -1, 999983, new Pair<>(866295, 999983));
+        testLinearCongruence(2, 999978, 999979, new Pair<>(499989, 999979));
         
         testLinearCongruence(3, 1, 6, NO_SOLUTIONS);
         testLinearCongruence(5, 4, 5, NO_SOLUTIONS);
@@ -576,6 +936,12 @@ public final class AlgorithmsTests {
         nList = new ArrayList<>(Arrays.asList(20, 5, 5));
         expected = new Pair<>(4, 5);
         testLinearCongruenceSystem(3, aList, bList, nList, expected);
+        
+        aList = new ArrayList<>(Arrays.asList(-21, -9, -29));
+        bList = new ArrayList<>(Arrays.asList(12, 14, 2));
+        nList = new ArrayList<>(Arrays.asList(5, 1, 22));
+        expected = new Pair<>(28, 110);
+        testLinearCongruenceSystem(3, aList, bList, nList, expected);
     }
     
     private void testLinearCongruenceSystem(final int count, final List<Integer> aList,
@@ -585,6 +951,120 @@ public final class AlgorithmsTests {
         assertEquals(Algorithms.linearCongruenceSystem(count, aList, bList, nList), expected);
     }
     
+    @Test
+    public void testLinearCongruenceSystemBruteForce() {
+        final Random random = new Random(12);
+        for (int t = 0; t < 5000; ++t) {
+            final int count = 1 + random.nextInt(4);
+            final long[] a = new long[count];
+            final long[] b = new long[count];
+            final long[] n = new long[count];
+            long lcm = 1;
+            for (int i = 0; i < count; ++i) {
+                a[i] = random.nextInt(81) - 40;
+                b[i] = random.nextInt(81) - 40;
+                n[i] = 1 + random.nextInt(24);
+                lcm = lcm / Algorithms.gcd(lcm, n[i]) * n[i];
+            }
+            final List<Long> expected = new ArrayList<>();
+            for (long x = 0; x < lcm; ++x) {
+                boolean solves = true;
+                for (int i = 0; (i < count) && (solves); ++i)
+                    solves = (a[i] * x - b[i]) % n[i] == 0;
+                if (solves)
+                    expected.add(x);
+            }
+            
+            final long[] solution = Algorithms.linearCongruenceSystem(a, b, n);
+            if (expected.isEmpty()) {
+                assertEquals(0, solution.length);
+                continue;
+            }
+            final List<Long> actual = new ArrayList<>();
+            for (long x = solution[0]; x < lcm; x += solution[1])
+                actual.add(x);
+            assertEquals(expected, actual);
+            assertEquals(BigInteger.valueOf(solution[1]),
+                    Algorithms.linearCongruenceSystemBig(a, b, n)[1]);
+        }
+    }
+    
+    @Test
+    public void testLinearCongruenceSystemLong() {
+        // Moduli near 2^31 whose product overflows int
+        final long p = 2147483647;
+        final long q = 2147483629;
+        long[] solution = Algorithms.linearCongruenceSystem(
+                new long[] {1, 1}, new long[] {5, 7}, new long[] {p, q});
+        assertEquals(p * q, solution[1]);
+        assertEquals(5, solution[0] % p);
+        assertEquals(7, solution[0] % q);
+        
+        // Non-coprime moduli: consistent and inconsistent
+        final long m = 1L << 40;
+        solution = Algorithms.linearCongruenceSystem(
+                new long[] {1, 1}, new long[] {3, 3 + 2 * m}, new long[] {6 * m, 10 * m});
+        assertArrayEquals(new long[] {3 + 12 * m, 30 * m}, solution);
+        assertEquals(0, Algorithms.linearCongruenceSystem(
+                new long[] {1, 1}, new long[] {3, 4}, new long[] {m * 6, m * 10}).length);
+        
+        // Modulus beyond Long.MAX_VALUE
+        final long[] a = new long[] {1, 3, 1};
+        final long[] b = new long[] {1, 2, 10};
+        final long[] n = new long[] {p, q, 2147483587};
+        final BigInteger[] big = Algorithms.linearCongruenceSystemBig(a, b, n);
+        assertEquals(BigInteger.valueOf(p).multiply(BigInteger.valueOf(q))
+                .multiply(BigInteger.valueOf(2147483587)), big[1]);
+        for (int i = 0; i < n.length; ++i) {
+            final BigInteger ni = BigInteger.valueOf(n[i]);
+            assertEquals(BigInteger.valueOf(b[i]).mod(ni),
+                    big[0].multiply(BigInteger.valueOf(a[i])).mod(ni));
+        }
+        try {
+            Algorithms.linearCongruenceSystem(a, b, n);
+            fail();
+        } catch (RuntimeException ex) {}
+    }
+    
+    @Test
+    public void testLinearCongruenceSystemProductTree() {
+        final Random random = new Random(13);
+        final int count = 1500;
+        final BigInteger x = new BigInteger(10000, random);
+        for (int test = 0; test < 2; ++test) {
+            // Prime moduli are pairwise coprime, random ones are not
+            final long[] a = new long[count];
+            final long[] b = new long[count];
+            final long[] n = new long[count];
+            for (int i = 0; i < count; ++i) {
+                n[i] = (test == 0) ? BigInteger.probablePrime(31, random).longValue()
+                        : 2 + random.nextInt(1 << 30);
+                a[i] = 1 + random.nextInt(1000);
+                b[i] = x.multiply(BigInteger.valueOf(a[i])).mod(BigInteger.valueOf(n[i])).longValue();
+            }
+            final BigInteger[] solution = Algorithms.linearCongruenceSystemBig(a, b, n);
+            
+            BigInteger[] expected = new BigInteger[] {BigInteger.ZERO, BigInteger.ONE};
+            final long[] congruence = new long[2];
+            for (int i = 0; i < count; ++i) {
+                assertTrue(ChineseRemainder.reduce(a[i], b[i], n[i], congruence));
+                expected = ChineseRemainder.merge(expected[0], expected[1],
+                        BigInteger.valueOf(congruence[0]), BigInteger.valueOf(congruence[1]));
+            }
+            assertArrayEquals(expected, solution);
+            assertEquals(x.mod(solution[1]), solution[0]);
+            
+            // One inconsistent congruence at the end
+            final long[] a2 = Arrays.copyOf(a, count + 1);
+            final long[] b2 = Arrays.copyOf(b, count + 1);
+            final long[] n2 = Arrays.copyOf(n, count + 1);
+            a2[count] = 1;
+            b2[count] = x.add(BigInteger.ONE).mod(BigInteger.valueOf(n[0])).longValue();
+            n2[count] = n[0];
+            assertEquals(0, Algorithms.linearCongruenceSystemBig(a2, b2, n2).length);
+        }
+    }
+    
     @Test
     public void testLinearCongruenceSystemFail() {
         List<Integer> aList = new ArrayList<>(Arrays.asList(2, 3, 2));
@@ -660,6 +1140,33 @@ public final class AlgorithmsTests {
         assertTrue(Algorithms.unitGroupElementOrder(86, 97) == 48);
     }
     
+    @Test
+    public void testUnitGroupElementOrderBruteForce() {
+        for (int n = 2; n < 400; ++n) {
+            for (int element = 1; element < n; ++element) {
+                if (!Algorithms.isCoprime(element, n))
+                    continue;
+                int expected = 1;
+                for (int power = element; power != 1; power = power * element % n)
+                    ++expected;
+                assertTrue(Algorithms.unitGroupElementOrder(element, n) == expected);
+            }
+        }
+        assertTrue(Algorithms.unitGroupElementOrder(2, 999983) == 499991);
+        assertTrue(Algorithms.unitGroupElementOrder(3, Integer.MAX_VALUE) == 715827882);
+        assertTrue(Algorithms.unitGroupElementOrder(7, Integer.MAX_VALUE) == Integer.MAX_VALUE - 1);
+    }
+    
+    @Test
+    public void testCarmichaelLambda() {
+        final int[] expected = new int[] {1, 1, 2, 2, 4, 2, 6, 2, 6, 4, 10, 2, 12, 6, 4, 4,
+            16, 6, 18, 4, 6, 10, 22, 2, 20, 12, 18, 6, 28, 4, 30, 8, 10, 16};
+        for (int n = 1; n <= expected.length; ++n)
+            assertTrue(Algorithms.carmichaelLambda(n) == expected[n - 1]);
+        assertTrue(Algorithms.carmichaelLambda(1 << 20) == 1 << 18);
+        assertTrue(Algorithms.carmichaelLambda(720720) == 60);
+    }
+    
     @Test
     public void testUnitGroupElementOrderFail() {
         for (int i = -2; i < 2; ++i)
@@ -694,6 +1201,71 @@ public final class AlgorithmsTests {
         assertTrue(Algorithms.modPow(-47, 25, 100) == 93);
     }
     
+    @Test
+    public void testModPowLong() {
+        assertTrue(Algorithms.modPow(Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MAX_VALUE)
+                == Integer.MAX_VALUE - 1);
+        assertTrue(Algorithms.modPow(-2L, 3L, 5L) == 2);
+        assertTrue(Algorithms.modPow(3L, 0L, Long.MAX_VALUE) == 1);
+        assertTrue(Algorithms.modPow(2L, 62L, Long.MAX_VALUE) == 1L << 62);
+        assertTrue(Algorithms.modPow(2L, 63L, 1L << 62) == 0);
+        
+        final Random random = new Random(42);
+        final long[] moduli = new long[] {1L << 31, (1L << 31) + 1, 3037000499L,
+            9223371873002223329L, Long.MAX_VALUE, 1L << 62, 3L << 60, 1000000007L * 48};
+        for (int i = 0; i < moduli.length; ++i) {
+            final BigInteger mod = BigInteger.valueOf(moduli[i]);
+            for (int j = 0; j < 200; ++j) {
+                final long base = random.nextLong();
+                final long exp = random.nextLong() >>> (1 + random.nextInt(63));
+                final BigInteger expected = BigInteger.valueOf(base).modPow(
+                        BigInteger.valueOf(exp), mod);
+                assertEquals(expected.longValue(), Algorithms.modPow(base, exp, moduli[i]));
+            }
+        }
+        
+        for (int mod = 1; mod < 200; ++mod) {
+            for (int base = -10; base < 10; ++base) {
+                for (int exp = 0; exp < 10; ++exp) {
+                    final long expected = BigInteger.valueOf(base).modPow(
+                            BigInteger.valueOf(exp), BigInteger.valueOf(mod)).longValue();
+                    assertTrue(Algorithms.modPow(base, exp, mod) == expected);
+                    assertTrue(Algorithms.modPow((long)base, exp, mod) == expected);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testModPowArray() {
+        final Random random = new Random(20);
+        final int[] base = new int[500];
+        for (int i = 0; i < base.length; ++i)
+            base[i] = random.nextInt();
+        final int[] mods = new int[] {1, 2, 97, 1 << 20, Integer.MAX_VALUE};
+        final int[] exps = new int[] {0, 1, 2, 65537, Integer.MAX_VALUE};
+        final int[] out = new int[base.length];
+        for (int m = 0; m < mods.length; ++m) {
+            for (int e = 0; e < exps.length; ++e) {
+                Algorithms.modPow(base, exps[e], mods[m], out);
+                for (int i = 0; i < base.length; ++i)
+                    assertEquals(Algorithms.modPow(base[i], exps[e], mods[m]), out[i]);
+            }
+        }
+        
+        final int[] expected = Arrays.copyOf(out, out.length);
+        Algorithms.modPow(base, Integer.MAX_VALUE, Integer.MAX_VALUE, base);
+        assertArrayEquals(expected, base);
+        try {
+            Algorithms.modPow(base, -1, 7, out);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            Algorithms.modPow(base, 1, 7, new int[1]);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
     @Test
     public void testModPowFail() {
         testModPowFail(14, -1, 15);
@@ -731,6 +1303,52 @@ public final class AlgorithmsTests {
         } catch (IllegalArgumentException ex) {}
     }
     
+    @Test
+    public void testJacobiSymbolEulerCriterion() {
+        for (int p = 3; p < 2000; p += 2) {
+            if (!Algorithms.isPrime(p))
+                continue;
+            for (int a = -p; a < 2 * p; ++a) {
+                int euler = Algorithms.modPow(((a % p) + p) % p, (p - 1) / 2, p);
+                if (euler == p - 1)
+                    euler = -1;
+                assertEquals(euler, Algorithms.jacobiSymbol(a, p));
+            }
+        }
+    }
+    
+    @Test
+    public void testJacobiSymbolComposite() {
+        for (int n = 1; n < 600; n += 2) {
+            final long[] factors = (n == 1) ? new long[0] : Factorizer.primeFactors(n);
+            for (int a = 0; a < n; ++a) {
+                int product = 1;
+                for (int i = 0; i < factors.length; ++i)
+                    product *= Algorithms.legendreSymbol(a, (int)factors[i]);
+                assertEquals(product, Algorithms.jacobiSymbol(a, n));
+            }
+        }
+        // p = 2^61 - 1 is prime, 3 is not a quadratic residue (p ≡ 7 mod 12)
+        final long p = (1L << 61) - 1;
+        assertEquals(-1, Algorithms.jacobiSymbol(3, p));
+        assertEquals(1, Algorithms.jacobiSymbol(2, p));
+        assertEquals(1, Algorithms.jacobiSymbol(Algorithms.mulMod(123456789, 123456789, p), p));
+        assertEquals(0, Algorithms.jacobiSymbol(3 * p, p));
+        assertEquals(Algorithms.modPow(-1L + p, (p - 1) / 2, p) == 1 ? 1 : -1,
+                Algorithms.jacobiSymbol(-1, p));
+    }
+    
+    @Test
+    public void testJacobiSymbolFail() {
+        final long[] moduli = new long[] {-3, 0, 2, 16, Long.MIN_VALUE};
+        for (int i = 0; i < moduli.length; ++i) {
+            try {
+                Algorithms.jacobiSymbol(5, moduli[i]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+    
     @Test
     public void testIsPerfectSquare() {
         final int[] perfectSquares = new int[] {0, 1, 4, 9, 16, 25, 36, 49, 64,
@@ -928,6 +1546,75 @@ public final class AlgorithmsTests {
         }
     }
     
+    @Test
+    public void testQuadraticCongruenceSimpleBruteForce() {
+        testQuadraticCongruenceSimple(36, 64, Arrays.asList(6, 10, 16));
+        testQuadraticCongruenceSimple(9, 18, Arrays.asList(3, 6));
+        testQuadraticCongruenceSimple(0, 18, Arrays.asList(0, 6));
+        
+        // The solutions must be exactly x ≡ xi (mod t) and t must be the smallest such period
+        for (int m = 1; m < 300; ++m) {
+            for (int a = 0; a < m; ++a) {
+                final boolean[] isRoot = new boolean[m];
+                int rootCount = 0;
+                for (int x = 0; x < m; ++x) {
+                    if ((x * x - a) % m == 0) {
+                        isRoot[x] = true;
+                        ++rootCount;
+                    }
+                }
+                final List<Integer> result = Algorithms.quadraticCongruenceSimple(a, m);
+                if (rootCount == 0) {
+                    assertEquals(result, EMPTY);
+                    continue;
+                }
+                final int t = result.get(result.size() - 1);
+                assertTrue(m % t == 0);
+                assertTrue((result.size() - 1) * (m / t) == rootCount);
+                for (int i = 0; i < result.size() - 1; ++i) {
+                    for (int x = result.get(i); x < m; x += t)
+                        assertTrue(isRoot[x]);
+                }
+                for (int d = 1; d < t; ++d) {
+                    if ((t % d == 0) && (rootCount % (m / d) == 0)) {
+                        boolean isPeriod = true;
+                        for (int x = 0; (x < m) && isPeriod; ++x)
+                            isPeriod = !isRoot[x] || isRoot[(x + d) % m];
+                        assertFalse(isPeriod);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testQuadraticCongruenceSimpleLong() {
+        final long p = 9223372036854775783L; // largest prime below 2^63, p ≡ 3 (mod 4)
+        final long q = 4611686018427387847L; // prime, q ≡ 7 (mod 8)
+        final long r = 1000000000000000009L; // prime, r ≡ 1 (mod 8)
+        final long[] moduli = new long[] {p, q, r, 3037000453L * 3037000493L,
+            1L << 62, (1L << 61) * 3, 1000003L * 1000003L * 1000003L, 999983L * 999979L * 64};
+        final Random random = new Random(7);
+        for (int i = 0; i < moduli.length; ++i) {
+            final BigInteger m = BigInteger.valueOf(moduli[i]);
+            for (int j = 0; j < 20; ++j) {
+                final BigInteger x = BigInteger.valueOf(random.nextLong() >>> 1).mod(m);
+                final long a = x.multiply(x).mod(m).longValue();
+                final List<Long> result = Algorithms.quadraticCongruenceSimple(a, moduli[i]);
+                final long t = result.get(result.size() - 1);
+                assertTrue(moduli[i] % t == 0);
+                assertTrue(result.contains(x.mod(BigInteger.valueOf(t)).longValue()));
+                for (int k = 0; k < result.size() - 1; ++k) {
+                    final BigInteger xk = BigInteger.valueOf(result.get(k));
+                    assertEquals(xk.multiply(xk).mod(m).longValue(), a);
+                }
+            }
+        }
+        assertTrue(Algorithms.quadraticCongruenceSimple(-1L, p).isEmpty());
+        assertTrue(Algorithms.quadraticCongruenceSimple(-1L, r).size() == 3);
+        assertEquals(Algorithms.quadraticCongruenceSimple(0L, 1L << 62), Arrays.asList(0L, 1L << 31));
+    }
+    
     @Test
     public void testQuadraticCongruenceSimpleFail() {
         testQuadraticCongruenceSimpleFail(14, -1);
@@ -980,6 +1667,30 @@ public final class AlgorithmsTests {
         testQuadraticCongruenceGeneral(8, 13, 17, 65, EMPTY);
     }
     
+    @Test
+    public void testQuadraticCongruenceGeneralBruteForce() {
+        testQuadraticCongruenceGeneral(1, 1, 0, 10, Arrays.asList(0, 4, 5, 9, 10));
+        
+        for (int m = 2; m < 40; ++m) {
+            for (int a = 1; a < m; ++a) {
+                if (!Algorithms.isCoprime(a, m))
+                    continue;
+                for (int b = 0; b < m; ++b) {
+                    for (int c = 0; c < m; ++c) {
+                        final List<Integer> expected = new ArrayList<>();
+                        for (int x = 0; x < m; ++x) {
+                            if ((a*x*x + b*x + c) % m == 0)
+                                expected.add(x);
+                        }
+                        if (!expected.isEmpty())
+                            expected.add(m);
+                        testQuadraticCongruenceGeneral(a, b, c, m, expected);
+                    }
+                }
+            }
+        }
+    }
+    
     private void testQuadraticCongruenceGeneral(final int a, final int b,
             final int c, final int m, final List<Integer> expected) {
         assertEquals(Algorithms.quadraticCongruenceGeneral(a, b, c, m), expected);
@@ -1016,6 +1727,17 @@ public final class AlgorithmsTests {
         final int[] noPrimitiveRoots = new int[] {8, 12, 15, 16, 20};
         for (int i = 0; i < noPrimitiveRoots.length; ++i)
             assertFalse(Algorithms.primitiveRootsExist(noPrimitiveRoots[i]));
+        
+        // Compare with the definition: some element has order phi(m)
+        for (int m = 2; m < 300; ++m) {
+            final int phi = Algorithms.eulerPhi(m);
+            boolean exists = false;
+            for (int g = 1; (g < m) && !exists; ++g) {
+                if (Algorithms.isCoprime(g, m))
+                    exists = Algorithms.unitGroupElementOrder(g, m) == phi;
+            }
+            assertEquals(exists, Algorithms.primitiveRootsExist(m));
+        }
     }
     
     @Test
@@ -1031,6 +1753,103 @@ public final class AlgorithmsTests {
         } catch (IllegalArgumentException ex) {}
     }
     
+    @Test
+    public void testPrimitiveRoot() {
+        assertEquals(1, Algorithms.primitiveRoot(2));
+        assertEquals(3, Algorithms.primitiveRoot(4));
+        assertEquals(2, Algorithms.primitiveRoot(25));
+        assertEquals(3, Algorithms.primitiveRoot(98));
+        
+        // Compare with the definition: smallest element of order phi(m)
+        for (int m = 2; m < 300; ++m) {
+            if (!Algorithms.primitiveRootsExist(m))
+                continue;
+            final int phi = Algorithms.eulerPhi(m);
+            final List<Integer> expected = new ArrayList<>();
+            for (int g = 1; g < m; ++g) {
+                if ((Algorithms.isCoprime(g, m)) && (Algorithms.unitGroupElementOrder(g, m) == phi))
+                    expected.add(g);
+            }
+            assertEquals((int)expected.get(0), Algorithms.primitiveRoot(m));
+            assertEquals(expected, Algorithms.allPrimitiveRoots(m));
+            assertEquals(Algorithms.eulerPhi(phi), Algorithms.allPrimitiveRoots(m).size());
+        }
+    }
+    
+    @Test
+    public void testPrimitiveRootFail() {
+        final int[] noPrimitiveRoots = new int[] {-1, 0, 1, 8, 12, 15, 16, 20};
+        for (int i = 0; i < noPrimitiveRoots.length; ++i) {
+            try {
+                Algorithms.primitiveRoot(noPrimitiveRoots[i]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+            try {
+                Algorithms.allPrimitiveRoots(noPrimitiveRoots[i]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+    
+    @Test
+    public void testDiscreteLog() {
+        assertEquals(0, Algorithms.discreteLog(3, 1, 7));
+        assertEquals(3, Algorithms.discreteLog(3, 6, 7));
+        assertEquals(3, Algorithms.discreteLog(-4, -1, 7));
+        assertEquals(-1, Algorithms.discreteLog(2, 3, 7));
+        assertEquals(-1, Algorithms.discreteLog(3, 5, 8));
+        
+        // Compare with brute force, including non-cyclic groups Zm×
+        for (int m = 2; m < 150; ++m) {
+            for (int g = 1; g < m; ++g) {
+                if (!Algorithms.isCoprime(g, m))
+                    continue;
+                final int[] expected = new int[m];
+                Arrays.fill(expected, -1);
+                int power = 1;
+                for (int x = 0; expected[power] < 0; ++x) {
+                    expected[power] = x;
+                    power = power * g % m;
+                }
+                for (int h = 0; h < m; ++h)
+                    assertEquals(expected[h], Algorithms.discreteLog(g, h, m));
+            }
+        }
+    }
+    
+    @Test
+    public void testDiscreteLogFail() {
+        final int[][] invalid = new int[][] {{2, 1, 1}, {2, 1, 0}, {2, 1, -7},
+            {0, 1, 7}, {7, 1, 7}, {2, 1, 4}, {6, 3, 9}};
+        for (int i = 0; i < invalid.length; ++i) {
+            try {
+                Algorithms.discreteLog(invalid[i][0], invalid[i][1], invalid[i][2]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+    
+    @Test
+    public void testDiscreteLogSteps() {
+        // The trace ends with the result of discreteLog() modulo the order of g
+        for (int m = 2; m < 100; ++m) {
+            for (int g = 1; g < m; ++g) {
+                if (!Algorithms.isCoprime(g, m))
+                    continue;
+                final int order = Algorithms.unitGroupElementOrder(g, m);
+                for (int h = -m; h < m; ++h) {
+                    final String steps = AlgorithmsSteps.discreteLogSteps(g, h, m);
+                    final int x = Algorithms.discreteLog(g, h, m);
+                    if (x < 0)
+                        assertTrue(steps.endsWith(AlgorithmsSteps.NO_SOLUTION));
+                    else
+                        assertTrue(steps.endsWith("x" + AlgorithmsSteps.CONG + x
+                                + AlgorithmsSteps.buildModLineEnd(order)));
+                }
+            }
+        }
+    }
+    
     @Test
     public void testBinomialCongruence() {
         int n = 3;
@@ -1066,6 +1885,62 @@ public final class AlgorithmsTests {
         testBinomialCongruence(8, 9, 91, Arrays.asList(3, 10, 11, 24, 67, 80, 81, 88, m));
     }
     
+    @Test
+    public void testBinomialCongruenceBruteForce() {
+        for (int n = 3; n < 8; ++n) {
+            for (int m = 1; m < 150; ++m) {
+                for (int a = 0; a < m; ++a) {
+                    final boolean[] isRoot = new boolean[m];
+                    int rootCount = 0;
+                    for (int x = 0; x < m; ++x) {
+                        if (Algorithms.modPow(x, n, m) == a) {
+                            isRoot[x] = true;
+                            ++rootCount;
+                        }
+                    }
+                    final List<Integer> result = Algorithms.binomialCongruence(n, a, m);
+                    if (rootCount == 0) {
+                        assertEquals(result, EMPTY);
+                        continue;
+                    }
+                    final int t = result.get(result.size() - 1);
+                    assertTrue((t == m) || (2*t == m));
+                    assertTrue((result.size() - 1) * (m / t) == rootCount);
+                    for (int i = 0; i < result.size() - 1; ++i) {
+                        for (int x = result.get(i); x < m; x += t)
+                            assertTrue(isRoot[x]);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testBinomialCongruenceLarge() {
+        // 2^31 - 2 = 2 * 3^2 * 7 * 11 * 31 * 151 * 331, 2147483628 = 2^2 * 3^2 * 59652323
+        final int[] primes = new int[] {Integer.MAX_VALUE, 2147483629, 999983};
+        for (int i = 0; i < primes.length; ++i) {
+            final int p = primes[i];
+            for (int n = 3; n < 13; ++n) {
+                final int a = Algorithms.modPow(123457, n, p);
+                final List<Integer> result = Algorithms.binomialCongruence(n, a, p);
+                assertTrue(result.size() - 1 == Algorithms.gcd(n, p - 1));
+                assertTrue(result.contains(123457));
+                for (int j = 0; j < result.size() - 1; ++j)
+                    assertTrue(Algorithms.modPow(result.get(j), n, p) == a);
+            }
+        }
+        
+        final int m = 1 << 30;
+        assertEquals(Algorithms.binomialCongruence(3, 27, m), Arrays.asList(3, m));
+        assertEquals(Algorithms.binomialCongruence(4, 81, m), Arrays.asList(3, m/4 - 3, m/4 + 3, m/2 - 3, m/2));
+        
+        final int q = 9765625; // 5^10, x^5 ≡ 0 <=> 25 | x
+        final List<Integer> zeros = Algorithms.binomialCongruence(5, 0, q);
+        assertTrue(zeros.size() == q/25 + 1);
+        assertTrue((zeros.get(1) == 25) && (zeros.get(q/25 - 1) == q - 25));
+    }
+    
     private void testBinomialCongruence(final int n, final int a, final int m,
             final List<Integer> expected) {
         assertTrue(Algorithms.binomialCongruence(n, a, m).equals(expected));
@@ -1242,6 +2117,31 @@ public final class AlgorithmsTests {
         testPermutationCyclesAndOrderFail(Arrays.asList(1, 2, 3, 5));
     }
     
+    @Test
+    public void testPermutationOrderOverflow() {
+        // lcm(46349, 46351) = 2148322499 > Integer.MAX_VALUE
+        final List<Integer> inputPerm = new ArrayList<>();
+        final Set<List<Integer>> cycles = new HashSet<>();
+        int start = 1;
+        for (int length : new int[] {46349, 46351}) {
+            final List<Integer> cycle = new ArrayList<>(length);
+            for (int i = 0; i < length; ++i) {
+                inputPerm.add(start + (i + 1) % length);
+                cycle.add(start + i);
+            }
+            cycles.add(cycle);
+            start += length;
+        }
+        try {
+            Algorithms.permutationOrder(inputPerm);
+            fail();
+        } catch (RuntimeException ex) {}
+        try {
+            Algorithms.permutationOrder(cycles);
+            fail();
+        } catch (RuntimeException ex) {}
+    }
+    
     private void testPermutationCyclesAndOrderFail(final List<Integer> inputPerm) {
         try {
             Algorithms.permutationCycles(inputPerm);
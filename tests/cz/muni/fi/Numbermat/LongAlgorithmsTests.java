@@ -0,0 +1,286 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class cz.muni.fi.Numbermat.LongAlgorithms.
+ * Small inputs are compared with class Algorithms, large ones with BigInteger.
+ * 
+ * @author agent <agent(at)local>
+ */
+public final class LongAlgorithmsTests {
+    
+    /**
+     * 2^61 - 1 and 2^31 - 1 are primes.
+     */
+    private static final long MERSENNE_61 = (1L << 61) - 1;
+    private static final long MERSENNE_31 = (1L << 31) - 1;
+    
+    @Test
+    public void testLcm() {
+        assertEquals(12, LongAlgorithms.lcm(4, 6));
+        assertEquals(MERSENNE_31 * MERSENNE_31, LongAlgorithms.lcm(MERSENNE_31, MERSENNE_31 * MERSENNE_31));
+        assertEquals(1L << 62, LongAlgorithms.lcm(1L << 62, 1L << 40));
+        try {
+            LongAlgorithms.lcm(MERSENNE_61, MERSENNE_31);
+            fail();
+        } catch (RuntimeException ex) {}
+    }
+    
+    @Test
+    public void testBezout() {
+        final long a = MERSENNE_61;
+        final long b = 1234567890123456789L;
+        final List<Long> result = LongAlgorithms.bezout(a, b);
+        assertEquals(1L, (long)result.get(0));
+        final BigInteger check = BigInteger.valueOf(a).multiply(BigInteger.valueOf(result.get(1)))
+                .add(BigInteger.valueOf(b).multiply(BigInteger.valueOf(result.get(2))));
+        assertEquals(BigInteger.ONE, check);
+        try {
+            LongAlgorithms.bezout(1, 2);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testEulerPhiAndCarmichaelLambda() {
+        for (int n = 1; n < 3000; ++n) {
+            assertEquals(Algorithms.eulerPhi(n), LongAlgorithms.eulerPhi(n));
+            assertEquals(Algorithms.carmichaelLambda(n), LongAlgorithms.carmichaelLambda(n));
+        }
+        assertEquals(MERSENNE_61 - 1, LongAlgorithms.eulerPhi(MERSENNE_61));
+        assertEquals((MERSENNE_31 - 1) * MERSENNE_31, LongAlgorithms.eulerPhi(MERSENNE_31 * MERSENNE_31));
+        assertEquals(1L << 61, LongAlgorithms.eulerPhi(1L << 62));
+        assertEquals(1L << 60, LongAlgorithms.carmichaelLambda(1L << 62));
+        // lambda(5 * (2^31 - 1)) = lcm(4, 2^31 - 2)
+        assertEquals(2 * (MERSENNE_31 - 1), LongAlgorithms.carmichaelLambda(5 * MERSENNE_31));
+    }
+    
+    @Test
+    public void testLinearCongruence() {
+        for (int n = 1; n < 40; ++n) {
+            for (int a = -40; a < 40; ++a) {
+                for (int b = -40; b < 40; ++b) {
+                    final Pair<Integer, Integer> expected = Algorithms.linearCongruence(a, b, n);
+                    final Pair<Long, Long> actual = LongAlgorithms.linearCongruence(a, b, n);
+                    assertEquals(String.valueOf(expected), String.valueOf(actual));
+                }
+            }
+        }
+        final Pair<Long, Long> large = LongAlgorithms.linearCongruence(3, 1, MERSENNE_61);
+        assertEquals(MERSENNE_61, (long)large.getSecond());
+        assertEquals(1, Algorithms.mulMod(3, large.getFirst(), MERSENNE_61));
+    }
+    
+    @Test
+    public void testLinearCongruenceSystem() {
+        final Pair<Long, Long> solution = LongAlgorithms.linearCongruenceSystem(
+                new long[] {1, 1}, new long[] {1, 2}, new long[] {MERSENNE_31, MERSENNE_31 - 2});
+        assertEquals(MERSENNE_31 * (MERSENNE_31 - 2), (long)solution.getSecond());
+        assertEquals(1, solution.getFirst() % MERSENNE_31);
+        assertEquals(2, solution.getFirst() % (MERSENNE_31 - 2));
+        assertTrue(LongAlgorithms.linearCongruenceSystem(
+                new long[] {1, 1}, new long[] {1, 2}, new long[] {4, 6}).isEmpty());
+    }
+    
+    @Test
+    public void testUnitGroupElementOrder() {
+        for (int n = 2; n < 300; ++n) {
+            for (int element = 1; element < n; ++element) {
+                if (Algorithms.isCoprime(element, n))
+                    assertEquals(Algorithms.unitGroupElementOrder(element, n),
+                            LongAlgorithms.unitGroupElementOrder(element, n));
+            }
+        }
+        // 37 is a primitive root modulo 2^61 - 1
+        assertEquals(MERSENNE_61 - 1, LongAlgorithms.unitGroupElementOrder(37, MERSENNE_61));
+        assertEquals(61, LongAlgorithms.unitGroupElementOrder(2, MERSENNE_61));
+        try {
+            LongAlgorithms.unitGroupElementOrder(6, 1L << 40);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testPrimitiveRoot() {
+        for (int m = 2; m < 300; ++m) {
+            assertEquals(Algorithms.primitiveRootsExist(m), LongAlgorithms.primitiveRootsExist(m));
+            if (Algorithms.primitiveRootsExist(m))
+                assertEquals(Algorithms.primitiveRoot(m), LongAlgorithms.primitiveRoot(m));
+        }
+        final long g = LongAlgorithms.primitiveRoot(MERSENNE_61);
+        assertEquals(MERSENNE_61 - 1, LongAlgorithms.unitGroupElementOrder(g, MERSENNE_61));
+        for (long smaller = 2; smaller < g; ++smaller)
+            assertTrue(LongAlgorithms.unitGroupElementOrder(smaller, MERSENNE_61) < MERSENNE_61 - 1);
+        
+        final long q = 2 * MERSENNE_31 * MERSENNE_31;
+        assertTrue(LongAlgorithms.primitiveRootsExist(q));
+        assertEquals(LongAlgorithms.eulerPhi(q),
+                LongAlgorithms.unitGroupElementOrder(LongAlgorithms.primitiveRoot(q), q));
+        assertFalse(LongAlgorithms.primitiveRootsExist(MERSENNE_31 * (MERSENNE_31 - 2)));
+        try {
+            LongAlgorithms.primitiveRoot(4 * MERSENNE_31);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testDiscreteLog() {
+        for (int m = 2; m < 100; ++m) {
+            for (int g = 1; g < m; ++g) {
+                if (!Algorithms.isCoprime(g, m))
+                    continue;
+                for (int h = 0; h < m; ++h)
+                    assertEquals(Algorithms.discreteLog(g, h, m), LongAlgorithms.discreteLog(g, h, m));
+            }
+        }
+        
+        // 2^61 - 2 has only small prime factors
+        final Random random = new Random(61);
+        for (int i = 0; i < 20; ++i) {
+            final long x = (random.nextLong() >>> 3) % (MERSENNE_61 - 1);
+            final long h = LongAlgorithms.modPow(37, x, MERSENNE_61);
+            assertEquals(x, LongAlgorithms.discreteLog(37, h, MERSENNE_61));
+        }
+        assertEquals(-1, LongAlgorithms.discreteLog(2, 3, MERSENNE_61));
+        
+        // Safe prime, the subgroup of order (p - 1)/2 = 1000000000061 is searched by BSGS
+        final long p = 2000000000123L;
+        final long g = LongAlgorithms.primitiveRoot(p);
+        final long x = 987654321012L;
+        assertEquals(x, LongAlgorithms.discreteLog(g, LongAlgorithms.modPow(g, x, p), p));
+        assertEquals(x % ((p - 1) / 2), LongAlgorithms.discreteLog(
+                LongAlgorithms.modPow(g, 2, p), LongAlgorithms.modPow(g, 2 * x, p), p));
+    }
+    
+    @Test
+    public void testPrimeCount() {
+        long count = 0;
+        for (int n = -5; n < 2000; ++n) {
+            if (Algorithms.isPrime(n))
+                ++count;
+            assertEquals(count, LongAlgorithms.primeCount(n));
+        }
+        assertEquals(664579, LongAlgorithms.primeCount(10000000));
+        assertEquals(50847534, LongAlgorithms.primeCount(1000000000));
+        assertEquals(455052511, LongAlgorithms.primeCount(10000000000L));
+        assertEquals(37607912018L, LongAlgorithms.primeCount(1000000000000L));
+        assertEquals(SegmentedSieve.count(1000000000L, 1100000001L),
+                LongAlgorithms.primeCount(1000000000L, 1100000000L));
+        assertEquals(LongAlgorithms.primeCount(123456789012L) - LongAlgorithms.primeCount(98765432099L),
+                LongAlgorithms.primeCount(98765432100L, 123456789012L));
+        assertEquals(1, LongAlgorithms.primeCount(999999999989L, 1000000000000L));
+        try {
+            LongAlgorithms.primeCount(1000000000001L);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            LongAlgorithms.primeCount(10, 9);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testNthPrime() {
+        for (int k = 1; k < 1000; ++k)
+            assertEquals(PrimeSieve.nthPrime(k), LongAlgorithms.nthPrime(k));
+        assertEquals(179424673L, LongAlgorithms.nthPrime(10000000));
+        assertEquals(22801763489L, LongAlgorithms.nthPrime(1000000000));
+        assertEquals(99999999977L, LongAlgorithms.nthPrime(4118054813L));
+        final long p = LongAlgorithms.nthPrime(1234567890);
+        assertTrue(Algorithms.isPrime(p));
+        assertEquals(1234567890, LongAlgorithms.primeCount(p));
+        try {
+            LongAlgorithms.nthPrime(0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testQuadraticCongruenceGeneral() {
+        for (int m = 1; m < 50; ++m) {
+            for (int a = 1; a < m + 2; ++a) {
+                if (!Algorithms.isCoprime(a, m))
+                    continue;
+                for (int b = 0; b < m; ++b) {
+                    for (int c = 0; c < m; ++c) {
+                        final List<Long> expected = new ArrayList<>();
+                        for (int x = 0; x < m; ++x) {
+                            if ((a * x * x + b * x + c) % m == 0)
+                                expected.add((long)x);
+                        }
+                        if (!expected.isEmpty())
+                            expected.add((long)m);
+                        assertEquals(expected, LongAlgorithms.quadraticCongruenceGeneral(a, b, c, m));
+                    }
+                }
+            }
+        }
+        
+        // x^2 + x - 2 = (x - 1)(x + 2) modulo a large prime
+        final List<Long> large = LongAlgorithms.quadraticCongruenceGeneral(1, 1, -2, MERSENNE_61);
+        assertEquals(Arrays.asList(1L, MERSENNE_61 - 2, MERSENNE_61), large);
+        try {
+            LongAlgorithms.quadraticCongruenceGeneral(2, 1, 1, 1L << 40);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testBinomialCongruence() {
+        for (int n = 1; n < 8; ++n) {
+            for (int m = 1; m < 100; ++m) {
+                for (int a = 0; a < m; ++a) {
+                    final List<Integer> expected = Algorithms.binomialCongruence(n, a, m);
+                    assertEquals(expected.toString(),
+                            LongAlgorithms.binomialCongruence(n, a, m).toString());
+                }
+            }
+        }
+        
+        // x^3 ≡ 8 modulo 2^61 - 1 (3 | p - 1, three roots)
+        final List<Long> roots = LongAlgorithms.binomialCongruence(3, 8, MERSENNE_61);
+        assertEquals(4, roots.size());
+        assertTrue(roots.contains(2L));
+        for (int i = 0; i < 3; ++i)
+            assertEquals(8, LongAlgorithms.modPow(roots.get(i), 3, MERSENNE_61));
+    }
+    
+    @Test
+    public void testMultiply() {
+        assertEquals(-6, LongAlgorithms.multiply(2, -3));
+        assertEquals(Long.MIN_VALUE, LongAlgorithms.multiply(1L << 62, -2));
+        final long[][] overflows = new long[][] {{1L << 62, 2}, {Long.MIN_VALUE, -1},
+            {1L << 32, 1L << 31}, {-(1L << 32), 1L << 32}};
+        for (int i = 0; i < overflows.length; ++i) {
+            try {
+                LongAlgorithms.multiply(overflows[i][0], overflows[i][1]);
+                fail();
+            } catch (RuntimeException ex) {}
+        }
+    }
+}
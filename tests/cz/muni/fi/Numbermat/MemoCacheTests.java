@@ -0,0 +1,135 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class cz.muni.fi.Numbermat.MemoCache.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class MemoCacheTests {
+
+    private static MemoCache<Long> squares(final int capacity, final AtomicInteger loads) {
+        return new MemoCache<>("squares", capacity, new MemoCache.Loader<Long>() {
+            @Override
+            public Long load(final long key) {
+                loads.incrementAndGet();
+                return key * key;
+            }
+        });
+    }
+
+    @Test
+    public void testCounters() {
+        final AtomicInteger loads = new AtomicInteger();
+        final MemoCache<Long> cache = squares(3, loads);
+        assertEquals(3, cache.getCapacity());
+        for (long key = 1; key <= 3; ++key)
+            assertEquals(key * key, (long)cache.get(key));
+        assertEquals(4, (long)cache.get(2));
+        assertEquals(9, (long)cache.get(3));
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(3, loads.get());
+
+        // 1 is the least recently used key
+        assertEquals(16, (long)cache.get(4));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.size());
+        assertEquals(4, (long)cache.get(2));
+        assertEquals(4, loads.get());
+        assertEquals(1, (long)cache.get(1));
+        assertEquals(5, loads.get());
+        assertEquals(2, cache.getEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses() + cache.getEvictions());
+        try {
+            squares(0, loads);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        final MemoCache<Long> cache = squares(64, loads);
+        final AtomicInteger errors = new AtomicInteger();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; ++t) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 20000; ++i) {
+                        final long key = i % 100;
+                        if (cache.get(key) != key * key)
+                            errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; ++t)
+            threads[t].join();
+        assertEquals(0, errors.get());
+        assertEquals(4 * 20000, cache.getHits() + cache.getMisses());
+        assertEquals(loads.get(), cache.getMisses());
+        assertTrue(cache.size() <= 64);
+    }
+
+    @Test
+    public void testAlgorithmsCaches() {
+        final long n = 1000000007L * 998244353L;
+        final MemoCache<long[]> factorizations = Algorithms.getFactorizationCache();
+        final long hits = factorizations.getHits();
+        assertEquals(2, LongAlgorithms.factorize(n).size());
+        final long[] factors = Factorizer.primeFactors(n);
+        factors[0] = 0; // callers get copies
+        assertEquals(998244353L, Factorizer.primeFactors(n)[0]);
+        assertTrue(factorizations.getHits() >= hits + 2);
+
+        final MemoCache<Long> phi = Algorithms.getEulerPhiCache();
+        final long phiHits = phi.getHits();
+        assertEquals(1000000006L * 998244352L, LongAlgorithms.eulerPhi(n));
+        assertEquals(1000000006L * 998244352L, LongAlgorithms.eulerPhi(n));
+        assertTrue(phi.getHits() > phiHits);
+
+        final MemoCache<int[]> divisors = Algorithms.getDivisorCache();
+        final int[] all = Algorithms.divisorArray(720720);
+        all[0] = 0;
+        final long divisorHits = divisors.getHits();
+        assertEquals(1, Algorithms.divisorArray(720720)[0]);
+        assertEquals(240, Algorithms.divisorArray(720720).length);
+        assertEquals(divisorHits + 2, divisors.getHits());
+
+        // Bounded queries are pruned and bypass the cache
+        final long divisorMisses = divisors.getMisses();
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+                Algorithms.divisorArray(720720, 10));
+        assertArrayEquals(new int[] {1, 2, 4, 8, 16}, Algorithms.divisorArray(-1 << 30, 16));
+        assertEquals(divisorHits + 2, divisors.getHits());
+        assertEquals(divisorMisses, divisors.getMisses());
+    }
+}
@@ -0,0 +1,261 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class cz.muni.fi.Numbermat.Permutations.
+ * 
+ * @author agent <agent(at)local>
+ */
+public final class PermutationsTests {
+    
+    @Test
+    public void testCycles() {
+        assertEquals(0, Permutations.cycles(new int[] {1, 2, 3}).length);
+        assertEquals(0, Permutations.cycles(new int[0]).length);
+        
+        final int[][] cycles = Permutations.cycles(new int[] {4, 1, 3, 6, 7, 2, 5});
+        assertEquals(2, cycles.length);
+        assertArrayEquals(new int[] {1, 4, 6, 2}, cycles[0]);
+        assertArrayEquals(new int[] {5, 7}, cycles[1]);
+    }
+    
+    @Test
+    public void testOrder() {
+        assertEquals(1, Permutations.order(new int[] {1}));
+        assertEquals(4, Permutations.order(new int[] {4, 1, 3, 6, 7, 2, 5}));
+        assertEquals(6, Permutations.order(new int[] {2, 3, 1, 5, 4}));
+        
+        final Random random = new Random(15);
+        for (int t = 0; t < 200; ++t) {
+            final int[] perm = Permutations.random(1 + random.nextInt(12), random);
+            int[] power = perm;
+            long order = 1;
+            while (!isIdentity(power)) {
+                power = Permutations.compose(perm, power);
+                ++order;
+            }
+            assertEquals(order, Permutations.order(perm));
+        }
+    }
+    
+    @Test
+    public void testComposeAndInverse() {
+        final int[] sigma = new int[] {2, 3, 1, 5, 4};
+        final int[] tau = new int[] {5, 4, 3, 2, 1};
+        assertArrayEquals(new int[] {4, 5, 1, 3, 2}, Permutations.compose(sigma, tau));
+        assertArrayEquals(new int[] {3, 1, 2, 5, 4}, Permutations.inverse(sigma));
+        
+        final Random random = new Random(16);
+        for (int t = 0; t < 100; ++t) {
+            final int[] perm = Permutations.random(1 + random.nextInt(50), random);
+            assertTrue(isIdentity(Permutations.compose(perm, Permutations.inverse(perm))));
+            assertTrue(isIdentity(Permutations.compose(Permutations.inverse(perm), perm)));
+        }
+    }
+    
+    @Test
+    public void testPower() {
+        final Random random = new Random(17);
+        for (int t = 0; t < 100; ++t) {
+            final int[] perm = Permutations.random(1 + random.nextInt(30), random);
+            int[] expected = new int[perm.length];
+            for (int i = 0; i < expected.length; ++i)
+                expected[i] = i + 1;
+            for (int k = 0; k < 40; ++k) {
+                assertArrayEquals(expected, Permutations.power(perm, k));
+                assertArrayEquals(Permutations.inverse(expected), Permutations.power(perm, -k));
+                expected = Permutations.compose(perm, expected);
+            }
+            final long order = Permutations.order(perm);
+            assertArrayEquals(Permutations.power(perm, 3),
+                    Permutations.power(perm, 3 + order * 1000000007L));
+        }
+    }
+    
+    @Test
+    public void testSign() {
+        assertEquals(1, Permutations.sign(new int[] {1, 2, 3}));
+        assertEquals(-1, Permutations.sign(new int[] {2, 1, 3}));
+        assertEquals(1, Permutations.sign(new int[] {2, 3, 1}));
+        
+        final Random random = new Random(18);
+        for (int t = 0; t < 100; ++t) {
+            final int[] perm = Permutations.random(1 + random.nextInt(20), random);
+            int inversions = 0;
+            for (int i = 0; i < perm.length; ++i) {
+                for (int j = i + 1; j < perm.length; ++j) {
+                    if (perm[i] > perm[j])
+                        ++inversions;
+                }
+            }
+            assertEquals((inversions % 2 == 0) ? 1 : -1, Permutations.sign(perm));
+        }
+    }
+    
+    @Test
+    public void testRandom() {
+        // All 6 permutations of S3 appear with roughly the same frequency
+        final Random random = new Random(19);
+        final int[] counts = new int[6];
+        final int samples = 60000;
+        for (int t = 0; t < samples; ++t) {
+            final int[] perm = Permutations.random(3, random);
+            Permutations.check(perm);
+            counts[(perm[0] - 1) * 2 + ((perm[1] < perm[2]) ? 0 : 1)]++;
+        }
+        for (int i = 0; i < counts.length; ++i)
+            assertTrue(Arrays.toString(counts), Math.abs(counts[i] - samples / 6) < 500);
+    }
+    
+    @Test
+    public void testLargePermutation() {
+        // One cycle of length 2^22 - 1 plus a transposition
+        final int size = 1 << 22;
+        final int[] perm = new int[size + 1];
+        for (int i = 0; i < size - 1; ++i)
+            perm[i] = i + 2;
+        perm[size - 2] = 1;
+        perm[size - 1] = size + 1;
+        perm[size] = size;
+        final int[][] cycles = Permutations.cycles(perm);
+        assertEquals(2, cycles.length);
+        assertEquals(size - 1, cycles[0].length);
+        assertEquals(2L * (size - 1), Permutations.order(perm));
+        assertEquals(-1, Permutations.sign(perm));
+        assertTrue(isIdentity(Permutations.power(perm, 2L * (size - 1))));
+    }
+    
+    @Test
+    public void testCycleType() {
+        final SortedMap<Integer, Integer> type = Permutations.cycleType(new int[] {4, 1, 3, 6, 7, 2, 5});
+        assertEquals("{1=1, 2=1, 4=1}", type.toString());
+        assertEquals(BigInteger.valueOf(4), Permutations.order(type));
+        
+        final Random random = new Random(20);
+        for (int t = 0; t < 200; ++t) {
+            final int[] perm = Permutations.random(1 + random.nextInt(100), random);
+            assertEquals(BigInteger.valueOf(Permutations.order(perm)),
+                    Permutations.order(Permutations.cycleType(perm)));
+        }
+    }
+    
+    @Test
+    public void testOrderBig() {
+        // One cycle of every prime length below 1000, the order is their product
+        final SortedMap<Integer, Integer> type = new TreeMap<>();
+        BigInteger expected = BigInteger.ONE;
+        for (int p = 2; p < 1000; ++p) {
+            if (Algorithms.isPrime(p)) {
+                type.put(p, 1);
+                expected = expected.multiply(BigInteger.valueOf(p));
+            }
+        }
+        type.put(512, 3);
+        type.put(729, 1);
+        expected = expected.multiply(BigInteger.valueOf(256 * 243));
+        assertEquals(expected, Permutations.order(type));
+        
+        // The same order does not fit into long
+        final int[] perm = Permutations.random(type, new Random(22));
+        assertEquals(expected, Permutations.order(Permutations.cycleType(perm)));
+        try {
+            Permutations.order(perm);
+            fail();
+        } catch (RuntimeException ex) {}
+    }
+    
+    @Test
+    public void testRandomOfCycleType() {
+        final Random random = new Random(21);
+        for (int t = 0; t < 200; ++t) {
+            final SortedMap<Integer, Integer> type = Permutations.randomCycleType(1 + random.nextInt(200), random);
+            final int[] perm = Permutations.random(type, random);
+            assertEquals(type, Permutations.cycleType(perm));
+        }
+        
+        // Number of fixed points of a random permutation has mean 1,
+        // the whole set is one cycle with probability 1/size
+        final int size = 1000000000;
+        final int samples = 20000;
+        int fixedPoints = 0;
+        int fullCycles = 0;
+        for (int t = 0; t < samples; ++t) {
+            final SortedMap<Integer, Integer> type = Permutations.randomCycleType(10, random);
+            if (type.containsKey(1))
+                fixedPoints += type.get(1);
+            if (type.containsKey(10))
+                ++fullCycles;
+            final SortedMap<Integer, Integer> huge = Permutations.randomCycleType(size, random);
+            long total = 0;
+            for (final Map.Entry<Integer, Integer> entry : huge.entrySet())
+                total += (long)entry.getKey() * entry.getValue();
+            assertEquals(size, total);
+        }
+        assertEquals(1.0, (double)fixedPoints / samples, 0.05);
+        assertEquals(0.1, (double)fullCycles / samples, 0.01);
+    }
+    
+    @Test
+    public void testCycleTypeFail() {
+        final SortedMap<Integer, Integer> type = new TreeMap<>();
+        type.put(3, 0);
+        try {
+            Permutations.order(type);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        type.put(3, 1 << 30);
+        try {
+            Permutations.random(type, new Random());
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    @Test
+    public void testCheckFail() {
+        final int[][] invalid = new int[][] {{0}, {2}, {1, 1}, {2, 3}, {1, 3, 3}};
+        for (int i = 0; i < invalid.length; ++i) {
+            try {
+                Permutations.check(invalid[i]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+        try {
+            Permutations.compose(new int[] {1}, new int[] {2, 1});
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+    
+    private static boolean isIdentity(final int[] perm) {
+        for (int i = 0; i < perm.length; ++i) {
+            if (perm[i] != i + 1)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import cz.muni.fi.Numbermat.GUI.Config;
+import cz.muni.fi.Numbermat.Problems.GCDProblem;
+import cz.muni.fi.Numbermat.Problems.QuadraticCongruenceGeneralProblem;
+import java.util.Arrays;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class cz.muni.fi.Numbermat.RandomContext.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class RandomContextTests {
+
+    private static long[] draws(final RandomContext random) {
+        final long[] result = new long[64];
+        for (int i = 0; i < result.length; i += 4) {
+            result[i] = Algorithms.randInt(-1000, 1000, random);
+            result[i + 1] = Algorithms.randPrime(2, 1 << 20, random);
+            result[i + 2] = Algorithms.generateModulus(true, random);
+            result[i + 3] = Algorithms.randPermutation(10, random).hashCode();
+        }
+        return result;
+    }
+
+    @Test
+    public void testReproducibility() {
+        assertArrayEquals(draws(new RandomContext(2014)), draws(new RandomContext(2014)));
+        assertFalse(Arrays.equals(draws(new RandomContext(2014)), draws(new RandomContext(2015))));
+
+        final RandomContext random = new RandomContext(42);
+        final long[] first = draws(random);
+        random.setSeed(42);
+        assertArrayEquals(first, draws(random));
+
+        final GCDProblem a = new GCDProblem(Config.HARD, true, new RandomContext(7));
+        final GCDProblem b = new GCDProblem(Config.HARD, true, new RandomContext(7));
+        assertEquals(a.getProblemPlaintext(), b.getProblemPlaintext());
+        assertEquals(a.getResult(), b.getResult());
+        assertEquals(
+                new QuadraticCongruenceGeneralProblem(Config.HARD, new RandomContext(7)).getSolutionPlaintext(),
+                new QuadraticCongruenceGeneralProblem(Config.HARD, new RandomContext(7)).getSolutionPlaintext());
+    }
+
+    @Test
+    public void testSplit() {
+        final RandomContext parent = new RandomContext(1);
+        final RandomContext child = parent.split();
+        assertFalse(Arrays.equals(draws(parent), draws(child)));
+
+        // Splitting is deterministic as well
+        final RandomContext other = new RandomContext(1);
+        assertArrayEquals(draws(new RandomContext(1).split()), draws(other.split()));
+        assertNotSame(RandomContext.current(), child);
+    }
+
+    @Test
+    public void testParallelWorkers() throws InterruptedException {
+        final int workers = 4;
+        final long[][] expected = new long[workers][];
+        final RandomContext root = new RandomContext(99);
+        final RandomContext[] contexts = new RandomContext[workers];
+        for (int t = 0; t < workers; ++t) {
+            contexts[t] = root.split();
+        }
+        final RandomContext replay = new RandomContext(99);
+        for (int t = 0; t < workers; ++t)
+            expected[t] = draws(replay.split());
+
+        final long[][] actual = new long[workers][];
+        final Thread[] threads = new Thread[workers];
+        for (int t = 0; t < workers; ++t) {
+            final int index = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    actual[index] = draws(contexts[index]);
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < workers; ++t)
+            threads[t].join();
+        for (int t = 0; t < workers; ++t) {
+            assertArrayEquals(expected[t], actual[t]);
+            if (t > 0)
+                assertFalse(Arrays.equals(actual[t - 1], actual[t]));
+        }
+    }
+
+    @Test
+    public void testNextInt() {
+        final RandomContext random = new RandomContext(3);
+        final int[] counts = new int[6];
+        for (int i = 0; i < 60000; ++i)
+            ++counts[random.nextInt(6)];
+        for (int i = 0; i < counts.length; ++i)
+            assertTrue(Math.abs(counts[i] - 10000) < 500);
+        for (int i = 0; i < 1000; ++i) {
+            final int n = random.nextInt(Integer.MAX_VALUE);
+            assertTrue((n >= 0) && (n < Integer.MAX_VALUE));
+            final double d = random.nextDouble();
+            assertTrue((d >= 0) && (d < 1));
+            assertEquals(0, random.nextInt(1));
+        }
+        try {
+            random.nextInt(0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+}
@@ -0,0 +1,104 @@
+/*
+    This file is part of Numbermat: Math Problem Generator.
+    Copyright © 2026 agent
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package cz.muni.fi.Numbermat;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for class cz.muni.fi.Numbermat.SegmentedSieve.
+ *
+ * @author agent <agent(at)local>
+ */
+public final class SegmentedSieveTests {
+
+    private static void checkRange(final long lo, final long hi) {
+        final long[] primes = SegmentedSieve.primes(lo, hi);
+        int index = 0;
+        for (long n = lo; n < hi; ++n) {
+            if (Algorithms.isPrime(n))
+                assertEquals(n, primes[index++]);
+        }
+        assertEquals(index, primes.length);
+        assertEquals(index, SegmentedSieve.count(lo, hi));
+    }
+
+    @Test
+    public void testSmallRanges() {
+        for (int lo = 0; lo < 40; ++lo) {
+            for (int hi = lo; hi < 60; ++hi)
+                checkRange(lo, hi);
+        }
+        checkRange(0, 3 * SegmentedSieve.SEGMENT_SIZE + 17);
+        checkRange(SegmentedSieve.SEGMENT_SIZE - 1001, SegmentedSieve.SEGMENT_SIZE + 1001);
+        assertEquals(664579, SegmentedSieve.count(0, 10000000));
+        assertEquals(5761455 - 664579, SegmentedSieve.count(10000000, 100000000));
+        assertEquals(0, SegmentedSieve.primes(24, 29).length);
+    }
+
+    @Test
+    public void testLargeRanges() {
+        checkRange(Integer.MAX_VALUE - 5000L, Integer.MAX_VALUE + 5000L);
+        checkRange(1000000000000L - 20000, 1000000000000L + 20000);
+        // pi(10^12 + 10^6) - pi(10^12)
+        final long lo = 1000000000000L;
+        assertEquals(36249, SegmentedSieve.count(lo, lo + 1000000));
+        final long top = SegmentedSieve.MAX_HIGH;
+        checkRange(top - 3000, top);
+    }
+
+    @Test
+    public void testSegments() {
+        final long lo = 1000000007L;
+        final long hi = lo + 5L * SegmentedSieve.SEGMENT_SIZE + 3;
+        final AtomicLong covered = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        SegmentedSieve.forEachSegment(lo, hi, new SegmentedSieve.Visitor() {
+            @Override
+            public void visit(final SegmentedSieve.Segment segment) {
+                covered.addAndGet(segment.getHigh() - segment.getLow());
+                final BitSet bits = segment.toBitSet();
+                assertEquals(segment.count(), bits.cardinality());
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+                    assertTrue(segment.isPrime(segment.getLow() + i));
+                count.addAndGet(bits.cardinality());
+            }
+        });
+        assertEquals(hi - lo, covered.get());
+        assertEquals(SegmentedSieve.primes(lo, hi).length, count.get());
+    }
+
+    @Test
+    public void testFail() {
+        try {
+            SegmentedSieve.count(-1, 10);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            SegmentedSieve.count(10, 9);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            SegmentedSieve.count(0, SegmentedSieve.MAX_HIGH + 1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+}